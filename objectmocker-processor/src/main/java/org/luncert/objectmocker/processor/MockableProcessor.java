@@ -0,0 +1,504 @@
+package org.luncert.objectmocker.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * MockableProcessor, emits a GeneratedObjectGenerator for each class annotated with
+ * {@code @Mockable}. Generated code creates target instance with its no-arg constructor and
+ * assigns fields directly (or through setters for private fields), builtin types and nested
+ * objects are generated by ObjectMockContext, enums by builtin EnumGenerator. Collections,
+ * maps and optionals are created inline with the same implementations and size as the
+ * reflective ObjectGenerator uses.
+ * @author Luncert
+ */
+public class MockableProcessor extends AbstractProcessor {
+
+  static final String MOCKABLE = "org.luncert.objectmocker.annotation.Mockable";
+  static final String GENERATED_OBJECT_GENERATOR =
+      "org.luncert.objectmocker.core.GeneratedObjectGenerator";
+  static final String GENERATED_CLASS_SUFFIX = "_ObjectGenerator";
+
+  // same as default collection size of RealObjectMockContext
+  private static final int DEFAULT_COLLECTION_SIZE = 8;
+
+  // initial capacity of hash based containers holding DEFAULT_COLLECTION_SIZE entries
+  private static final int HASH_CAPACITY = (int) (DEFAULT_COLLECTION_SIZE / 0.75f) + 1;
+
+  // container interface or class -> expression creating its implementation
+  private static final Map<String, String> COLLECTIONS = new HashMap<>();
+  private static final Map<String, String> MAPS = new HashMap<>();
+
+  static {
+    String arrayList = "new java.util.ArrayList<>(" + DEFAULT_COLLECTION_SIZE + ")";
+    COLLECTIONS.put("java.util.Collection", arrayList);
+    COLLECTIONS.put("java.util.List", arrayList);
+    COLLECTIONS.put("java.util.ArrayList", arrayList);
+    COLLECTIONS.put("java.util.LinkedList", "new java.util.LinkedList<>()");
+    String hashSet = "new java.util.HashSet<>(" + HASH_CAPACITY + ")";
+    COLLECTIONS.put("java.util.Set", hashSet);
+    COLLECTIONS.put("java.util.HashSet", hashSet);
+    COLLECTIONS.put("java.util.LinkedHashSet",
+        "new java.util.LinkedHashSet<>(" + HASH_CAPACITY + ")");
+    String treeSet = "new java.util.TreeSet<>()";
+    COLLECTIONS.put("java.util.SortedSet", treeSet);
+    COLLECTIONS.put("java.util.NavigableSet", treeSet);
+    COLLECTIONS.put("java.util.TreeSet", treeSet);
+    String arrayDeque = "new java.util.ArrayDeque<>(" + DEFAULT_COLLECTION_SIZE + ")";
+    COLLECTIONS.put("java.util.Queue", arrayDeque);
+    COLLECTIONS.put("java.util.Deque", arrayDeque);
+    COLLECTIONS.put("java.util.ArrayDeque", arrayDeque);
+
+    String hashMap = "new java.util.HashMap<>(" + HASH_CAPACITY + ")";
+    MAPS.put("java.util.Map", hashMap);
+    MAPS.put("java.util.HashMap", hashMap);
+    MAPS.put("java.util.LinkedHashMap", "new java.util.LinkedHashMap<>(" + HASH_CAPACITY + ")");
+    String treeMap = "new java.util.TreeMap<>()";
+    MAPS.put("java.util.SortedMap", treeMap);
+    MAPS.put("java.util.NavigableMap", treeMap);
+    MAPS.put("java.util.TreeMap", treeMap);
+    String concurrentMap = "new java.util.concurrent.ConcurrentHashMap<>(" + HASH_CAPACITY + ")";
+    MAPS.put("java.util.concurrent.ConcurrentMap", concurrentMap);
+    MAPS.put("java.util.concurrent.ConcurrentHashMap", concurrentMap);
+  }
+
+  private static final String SERVICE_FILE = "META-INF/services/" + GENERATED_OBJECT_GENERATOR;
+
+  private Elements elements;
+  private Types types;
+  private Filer filer;
+  private Messager messager;
+
+  // binary names of generated classes, written into service file in the last round
+  private final Set<String> generatedClasses = new TreeSet<>();
+
+  @Override
+  public synchronized void init(ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+    elements = processingEnv.getElementUtils();
+    types = processingEnv.getTypeUtils();
+    filer = processingEnv.getFiler();
+    messager = processingEnv.getMessager();
+  }
+
+  @Override
+  public Set<String> getSupportedAnnotationTypes() {
+    return Collections.singleton(MOCKABLE);
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      writeServiceFile();
+      return false;
+    }
+
+    TypeElement mockable = elements.getTypeElement(MOCKABLE);
+    if (mockable == null) {
+      return false;
+    }
+    for (Element element : roundEnv.getElementsAnnotatedWith(mockable)) {
+      if (element.getKind() != ElementKind.CLASS) {
+        error(element, "@Mockable could only be used on class.");
+        continue;
+      }
+      TypeElement type = (TypeElement) element;
+      try {
+        new GeneratorWriter(type).write();
+      } catch (InvalidMockableException e) {
+        error(e.element, e.getMessage());
+      } catch (IOException e) {
+        error(type, "Failed to write generator for " + type.getQualifiedName() + ": "
+            + e.getMessage());
+      }
+    }
+    return true;
+  }
+
+  private void writeServiceFile() {
+    if (generatedClasses.isEmpty()) {
+      return;
+    }
+    // keep entries of previous incremental compilations
+    Set<String> entries = new TreeSet<>(generatedClasses);
+    try {
+      FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+      try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+          existing.openInputStream(), StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (!line.trim().isEmpty()) {
+            entries.add(line.trim());
+          }
+        }
+      }
+    } catch (IOException e) {
+      // no service file yet
+    }
+
+    try {
+      FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+      try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+          file.openOutputStream(), StandardCharsets.UTF_8))) {
+        entries.forEach(writer::println);
+      }
+    } catch (IOException e) {
+      messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write " + SERVICE_FILE + ": "
+          + e.getMessage());
+    }
+  }
+
+  private void error(Element element, String message) {
+    messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+
+  private static final class InvalidMockableException extends Exception {
+
+    private static final long serialVersionUID = -4432617316049536208L;
+
+    private final transient Element element;
+
+    InvalidMockableException(Element element, String message) {
+      super(message);
+      this.element = element;
+    }
+  }
+
+  /**
+   * Write generator source for one @Mockable class.
+   */
+  private final class GeneratorWriter {
+
+    private final TypeElement type;
+    private final DeclaredType declaredType;
+    private final PackageElement targetPackage;
+    private final String targetName;
+
+    // static field declarations of generated class, e.g. enum generators
+    private final List<String> staticFields = new ArrayList<>();
+    // statements of fill method body
+    private final List<String> statements = new ArrayList<>();
+    private int localCount;
+
+    GeneratorWriter(TypeElement type) {
+      this.type = type;
+      this.declaredType = (DeclaredType) type.asType();
+      this.targetPackage = elements.getPackageOf(type);
+      this.targetName = type.getQualifiedName().toString();
+    }
+
+    void write() throws InvalidMockableException, IOException {
+      checkTargetType();
+
+      for (TypeElement t = type; t != null; t = superclassOf(t)) {
+        for (VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+          Set<Modifier> modifiers = field.getModifiers();
+          if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+            continue;
+          }
+          writeField(field);
+        }
+      }
+
+      String packageName = targetPackage.isUnnamed()
+          ? "" : targetPackage.getQualifiedName().toString();
+      String simpleName = generatedSimpleName();
+      String binaryName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+      JavaFileObject source = filer.createSourceFile(binaryName, type);
+      try (Writer writer = source.openWriter()) {
+        writer.write(render(packageName, simpleName));
+      }
+      generatedClasses.add(binaryName);
+    }
+
+    private String generatedSimpleName() {
+      StringBuilder builder = new StringBuilder(type.getSimpleName());
+      for (Element e = type.getEnclosingElement(); e instanceof TypeElement;
+           e = e.getEnclosingElement()) {
+        builder.insert(0, '_').insert(0, e.getSimpleName());
+      }
+      return builder.append(GENERATED_CLASS_SUFFIX).toString();
+    }
+
+    private void checkTargetType() throws InvalidMockableException {
+      Set<Modifier> modifiers = type.getModifiers();
+      if (modifiers.contains(Modifier.ABSTRACT)) {
+        throw new InvalidMockableException(type, "@Mockable class couldn't be abstract.");
+      }
+      if (!type.getTypeParameters().isEmpty()) {
+        throw new InvalidMockableException(type, "@Mockable class couldn't be generic.");
+      }
+      for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+        if (e.getModifiers().contains(Modifier.PRIVATE)) {
+          throw new InvalidMockableException(type, "@Mockable class couldn't be private.");
+        }
+        Element enclosing = e.getEnclosingElement();
+        if (enclosing instanceof TypeElement && enclosing.getKind() == ElementKind.CLASS
+            && !e.getModifiers().contains(Modifier.STATIC)) {
+          throw new InvalidMockableException(type, "@Mockable nested class must be static.");
+        }
+      }
+      for (ExecutableElement ctor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+        if (ctor.getParameters().isEmpty() && !ctor.getModifiers().contains(Modifier.PRIVATE)) {
+          return;
+        }
+      }
+      throw new InvalidMockableException(type,
+          "@Mockable class must have a non-private no-arg constructor.");
+    }
+
+    private TypeElement superclassOf(TypeElement t) {
+      TypeMirror superclass = t.getSuperclass();
+      if (superclass.getKind() != TypeKind.DECLARED) {
+        return null;
+      }
+      TypeElement element = (TypeElement) types.asElement(superclass);
+      return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private void writeField(VariableElement field) throws InvalidMockableException {
+      // resolve type variables declared by super classes
+      TypeMirror fieldType = types.asMemberOf(declaredType, field);
+      String fieldName = field.getSimpleName().toString();
+      String value = valueOf(field, fieldType, "");
+
+      if (isAccessible(field)) {
+        statements.add("target." + fieldName + " = " + value + ";");
+        return;
+      }
+      ExecutableElement setter = findSetter(fieldName, fieldType);
+      if (setter == null) {
+        throw new InvalidMockableException(field, "Field " + fieldName
+            + " is not accessible from package " + targetPackage.getQualifiedName()
+            + " and has no setter.");
+      }
+      statements.add("target." + setter.getSimpleName() + "(" + value + ");");
+    }
+
+    /**
+     * Get expression of a generated value of type, containers are built into local variables
+     * by statements added before the expression is used.
+     * @param field field being generated, for error reporting
+     * @param type value type
+     * @param indent indentation of statements added
+     * @return expression
+     */
+    private String valueOf(VariableElement field, TypeMirror type, String indent)
+        throws InvalidMockableException {
+      if (type.getKind() != TypeKind.DECLARED) {
+        return valueExpression(type);
+      }
+      DeclaredType declared = (DeclaredType) type;
+      String name = ((TypeElement) types.asElement(type)).getQualifiedName().toString();
+      String collection = COLLECTIONS.get(name);
+      String map = MAPS.get(name);
+      if (collection == null && map == null && !"java.util.Optional".equals(name)) {
+        return valueExpression(type);
+      }
+      List<? extends TypeMirror> args = declared.getTypeArguments();
+      if (args.isEmpty()) {
+        throw new InvalidMockableException(field, "Couldn't determine element type of raw type "
+            + name + " of field " + field.getSimpleName() + ".");
+      }
+      for (TypeMirror arg : args) {
+        if (arg.getKind() != TypeKind.DECLARED && arg.getKind() != TypeKind.ARRAY) {
+          throw new InvalidMockableException(field, "Couldn't generate element of type " + arg
+              + " for field " + field.getSimpleName() + ".");
+        }
+      }
+      if ("java.util.Optional".equals(name)) {
+        return "java.util.Optional.ofNullable(" + valueOf(field, args.get(0), indent) + ")";
+      }
+
+      boolean sorted = collection != null ? collection.contains("TreeSet")
+          : map.contains("TreeMap");
+      if (sorted && !isComparable(args.get(0))) {
+        throw new InvalidMockableException(field, "Couldn't generate " + name + " of "
+            + args.get(0) + ", which is not Comparable.");
+      }
+      String local = "value" + localCount;
+      String index = "i" + localCount++;
+      statements.add(indent + type + " " + local + " = " + (collection != null ? collection : map)
+          + ";");
+      statements.add(indent + "for (int " + index + " = 0; " + index + " < "
+          + DEFAULT_COLLECTION_SIZE + "; " + index + "++) {");
+      String inner = indent + "  ";
+      if (collection != null) {
+        // generated nested objects may be null if limited by GraphLimits
+        boolean rejectsNull = sorted || collection.contains("ArrayDeque");
+        String elem = valueOf(field, args.get(0), inner);
+        if (rejectsNull) {
+          String elemLocal = "elem" + localCount++;
+          statements.add(inner + args.get(0) + " " + elemLocal + " = " + elem + ";");
+          statements.add(inner + "if (" + elemLocal + " != null) {");
+          statements.add(inner + "  " + local + ".add(" + elemLocal + ");");
+          statements.add(inner + "}");
+        } else {
+          statements.add(inner + local + ".add(" + elem + ");");
+        }
+      } else {
+        boolean concurrent = map.contains("ConcurrentHashMap");
+        String key = "key" + localCount++;
+        statements.add(inner + args.get(0) + " " + key + " = "
+            + valueOf(field, args.get(0), inner) + ";");
+        if (sorted || concurrent) {
+          statements.add(inner + "if (" + key + " == null) {");
+          statements.add(inner + "  continue;");
+          statements.add(inner + "}");
+        }
+        String value = valueOf(field, args.get(1), inner);
+        if (concurrent) {
+          String valueLocal = "entry" + localCount++;
+          statements.add(inner + args.get(1) + " " + valueLocal + " = " + value + ";");
+          statements.add(inner + "if (" + valueLocal + " != null) {");
+          statements.add(inner + "  " + local + ".put(" + key + ", " + valueLocal + ");");
+          statements.add(inner + "}");
+        } else {
+          statements.add(inner + local + ".put(" + key + ", " + value + ");");
+        }
+      }
+      statements.add(indent + "}");
+      return local;
+    }
+
+    private boolean isComparable(TypeMirror type) {
+      TypeElement comparable = elements.getTypeElement("java.lang.Comparable");
+      return types.isAssignable(types.erasure(type), types.erasure(comparable.asType()));
+    }
+
+    private String valueExpression(TypeMirror type) throws InvalidMockableException {
+      if (type.getKind().isPrimitive()) {
+        // builtin generators are registered for boxed types
+        return "context.generate(" + types.boxedClass((PrimitiveType) type)
+            .getQualifiedName() + ".class)";
+      }
+      if (type.getKind() == TypeKind.DECLARED
+          && types.asElement(type).getKind() == ElementKind.ENUM) {
+        TypeElement enumType = (TypeElement) types.asElement(type);
+        boolean empty = ElementFilter.fieldsIn(enumType.getEnclosedElements()).stream()
+            .noneMatch(e -> e.getKind() == ElementKind.ENUM_CONSTANT);
+        if (empty) {
+          throw new InvalidMockableException(enumType,
+              "Couldn't generate a value with empty enum " + enumType.getSimpleName() + ".");
+        }
+        String generator = "ENUM_GENERATOR_" + staticFields.size();
+        staticFields.add("private static final "
+            + "org.luncert.objectmocker.core.AbstractGenerator<Object> " + generator
+            + " = org.luncert.objectmocker.builtingenerator.BuiltinGeneratorBuilder"
+            + ".enumGenerator(" + enumType.getQualifiedName() + ".values());");
+        return "(" + enumType.getQualifiedName() + ") " + generator + ".generate(context, "
+            + enumType.getQualifiedName() + ".class)";
+      }
+      return "context.generate(" + types.erasure(type) + ".class)";
+    }
+
+    private boolean isAccessible(Element member) {
+      Set<Modifier> modifiers = member.getModifiers();
+      if (modifiers.contains(Modifier.PRIVATE)) {
+        return false;
+      }
+      if (modifiers.contains(Modifier.PUBLIC)) {
+        return true;
+      }
+      // package-private or protected member, generated class lives in target's package
+      return elements.getPackageOf(member).equals(targetPackage);
+    }
+
+    private ExecutableElement findSetter(String fieldName, TypeMirror fieldType) {
+      String setterName = "set" + Character.toUpperCase(fieldName.charAt(0))
+          + fieldName.substring(1);
+      for (ExecutableElement method
+          : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+        if (method.getSimpleName().contentEquals(setterName)
+            && method.getParameters().size() == 1
+            && !method.getModifiers().contains(Modifier.STATIC)
+            && isAccessible(method)) {
+          TypeMirror paramType = ((ExecutableType) types.asMemberOf(declaredType, method))
+              .getParameterTypes().get(0);
+          if (types.isSameType(paramType, fieldType)) {
+            return method;
+          }
+        }
+      }
+      return null;
+    }
+
+    private String render(String packageName, String simpleName) {
+      StringBuilder out = new StringBuilder();
+      if (!packageName.isEmpty()) {
+        out.append("package ").append(packageName).append(";\n\n");
+      }
+      out.append("/**\n")
+          .append(" * Generated by ").append(MockableProcessor.class.getName())
+          .append(" for {@link ").append(targetName).append("}, do not edit.\n")
+          .append(" */\n")
+          .append("public final class ").append(simpleName)
+          .append("\n    implements ").append(GENERATED_OBJECT_GENERATOR)
+          .append('<').append(targetName).append("> {\n\n");
+      for (String staticField : staticFields) {
+        out.append("  ").append(staticField).append("\n\n");
+      }
+      out.append("  @Override\n")
+          .append("  public Class<").append(targetName).append("> getTargetType() {\n")
+          .append("    return ").append(targetName).append(".class;\n")
+          .append("  }\n\n")
+          .append("  @Override\n")
+          .append("  public ").append(targetName).append(" newInstance() {\n")
+          .append("    return new ").append(targetName).append("();\n")
+          .append("  }\n\n")
+          .append("  @Override\n")
+          .append("  @SuppressWarnings(\"unchecked\")\n")
+          .append("  public void fill(org.luncert.objectmocker.core.ObjectMockContext context, ")
+          .append(targetName).append(" target) {\n");
+      for (String statement : statements) {
+        out.append("    ").append(statement).append('\n');
+      }
+      out.append("  }\n")
+          .append("}\n");
+      return out.toString();
+    }
+  }
+}
@@ -0,0 +1,283 @@
+package org.luncert.objectmocker.processor;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.luncert.objectmocker.ObjectMocker;
+import org.luncert.objectmocker.core.GeneratedObjectGenerator;
+import org.luncert.objectmocker.core.ObjectGenerator;
+import org.luncert.objectmocker.core.ObjectMockContext;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeSet;
+
+@RunWith(JUnit4.class)
+public class MockableProcessorTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File sourceDir;
+  private File outputDir;
+
+  @Before
+  public void setup() throws IOException {
+    sourceDir = folder.newFolder("src");
+    outputDir = folder.newFolder("classes");
+  }
+
+  @Test
+  public void generateObjectGenerator() throws Exception {
+    writeSource("sample/Status.java",
+        "package sample;",
+        "public enum Status { ON, OFF }");
+    writeSource("sample/Base.java",
+        "package sample;",
+        "public class Base<T> {",
+        "  protected T payload;",
+        "}");
+    writeSource("sample/Item.java",
+        "package sample;",
+        "@org.luncert.objectmocker.annotation.Mockable",
+        "public class Item extends Base<String> {",
+        "  int id;",
+        "  private String name;",
+        "  private static int COUNTER;",
+        "  public void setName(String name) { this.name = name; }",
+        "}");
+    writeSource("sample/Order.java",
+        "package sample;",
+        "import java.util.List;",
+        "public class Order {",
+        "  @org.luncert.objectmocker.annotation.Mockable",
+        "  public static class Line {",
+        "    public long amount;",
+        "    public boolean paid;",
+        "    public Status status;",
+        "    public List<Item> items;",
+        "    public List<Status> history;",
+        "  }",
+        "}");
+    Assert.assertEquals("[]", compile().toString());
+
+    File serviceFile = new File(outputDir,
+        "META-INF/services/" + MockableProcessor.GENERATED_OBJECT_GENERATOR);
+    List<String> services = Files.readAllLines(serviceFile.toPath(), StandardCharsets.UTF_8);
+    Assert.assertEquals(Arrays.asList("sample.Item_ObjectGenerator",
+        "sample.Order_Line_ObjectGenerator"), services);
+
+    ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+    try (URLClassLoader loader = new URLClassLoader(new URL[]{outputDir.toURI().toURL()},
+        getClass().getClassLoader())) {
+      // RealObjectMockContext discovers generated generators with context class loader
+      Thread.currentThread().setContextClassLoader(loader);
+      Class<?> item = loader.loadClass("sample.Item");
+      Class<?> line = loader.loadClass("sample.Order$Line");
+      ObjectMockContext context = ObjectMocker.context()
+          .register(ObjectGenerator.builder(item).build())
+          .register(ObjectGenerator.builder(line).build())
+          .create();
+
+      List<Class<?>> discovered = new ArrayList<>();
+      Iterator<GeneratedObjectGenerator> iterator =
+          ServiceLoader.load(GeneratedObjectGenerator.class, loader).iterator();
+      while (iterator.hasNext()) {
+        GeneratedObjectGenerator generator = iterator.next();
+        discovered.add(generator.getTargetType());
+        Object ins = generator.generate(context);
+        Assert.assertTrue(generator.getTargetType().isInstance(ins));
+      }
+      Assert.assertEquals(Arrays.asList(item, line), discovered);
+
+      GeneratedObjectGenerator generator = (GeneratedObjectGenerator)
+          loader.loadClass("sample.Order_Line_ObjectGenerator").newInstance();
+      Object ins = generator.generate(context);
+      Assert.assertNotNull(read(ins, "status"));
+      List<?> items = (List<?>) read(ins, "items");
+      Assert.assertEquals(8, items.size());
+      Assert.assertNotNull(read(items.get(0), "name"));
+      Assert.assertNotNull(read(items.get(0), "payload"));
+      Assert.assertEquals(8, ((List<?>) read(ins, "history")).size());
+
+      // reflective ObjectGenerator couldn't resolve type variable of Base.payload
+      ins = context.generate(item);
+      Assert.assertTrue(read(ins, "payload") instanceof String);
+    } finally {
+      Thread.currentThread().setContextClassLoader(contextLoader);
+    }
+  }
+
+  @Test
+  public void generateContainers() throws Exception {
+    writeSource("sample/Item.java",
+        "package sample;",
+        "@org.luncert.objectmocker.annotation.Mockable",
+        "public class Item {",
+        "  public String name;",
+        "}");
+    writeSource("sample/Box.java",
+        "package sample;",
+        "import java.util.*;",
+        "@org.luncert.objectmocker.annotation.Mockable",
+        "public class Box {",
+        "  public Set<String> tags;",
+        "  public Map<String, Item> index;",
+        "  public Optional<Item> first;",
+        "  public Deque<Box> children;",
+        "  public SortedSet<String> names;",
+        "  public java.util.concurrent.ConcurrentMap<String, List<Item>> groups;",
+        "}");
+    Assert.assertEquals("[]", compile().toString());
+
+    ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+    try (URLClassLoader loader = new URLClassLoader(new URL[]{outputDir.toURI().toURL()},
+        getClass().getClassLoader())) {
+      Thread.currentThread().setContextClassLoader(loader);
+      Class<?> item = loader.loadClass("sample.Item");
+      Class<?> box = loader.loadClass("sample.Box");
+      ObjectMockContext context = ObjectMocker.context()
+          .register(ObjectGenerator.builder(item).build())
+          .register(ObjectGenerator.builder(box).build())
+          .create();
+
+      // generated generator is preferred by context
+      Object ins = context.generate(box);
+      Assert.assertEquals(8, ((Set<?>) read(ins, "tags")).size());
+      Map<?, ?> index = (Map<?, ?>) read(ins, "index");
+      Assert.assertEquals(8, index.size());
+      Assert.assertNotNull(read(index.values().iterator().next(), "name"));
+      Assert.assertTrue(item.isInstance(((Optional<?>) read(ins, "first")).get()));
+      // self reference is cut with null, which ArrayDeque rejects
+      Assert.assertTrue(((Deque<?>) read(ins, "children")).isEmpty());
+      Assert.assertTrue(read(ins, "names") instanceof TreeSet);
+      Map<?, ?> groups = (Map<?, ?>) read(ins, "groups");
+      Assert.assertEquals(8, groups.size());
+      Assert.assertEquals(8, ((List<?>) groups.values().iterator().next()).size());
+    } finally {
+      Thread.currentThread().setContextClassLoader(contextLoader);
+    }
+  }
+
+  @Test
+  public void rejectUnsupportedContainers() throws IOException {
+    writeSource("sample/Plain.java",
+        "package sample;",
+        "public class Plain {",
+        "}");
+    writeSource("sample/Sorted.java",
+        "package sample;",
+        "@org.luncert.objectmocker.annotation.Mockable",
+        "public class Sorted {",
+        "  public java.util.TreeSet<Plain> items;",
+        "}");
+    writeSource("sample/Wild.java",
+        "package sample;",
+        "@org.luncert.objectmocker.annotation.Mockable",
+        "public class Wild {",
+        "  public java.util.Set<? extends Plain> wildcards;",
+        "}");
+    List<String> errors = compile();
+    Assert.assertEquals(2, errors.size());
+    Assert.assertTrue(errors.stream().anyMatch(e -> e.contains("Comparable")));
+    Assert.assertTrue(errors.stream().anyMatch(e -> e.contains("wildcards")));
+  }
+
+  @Test
+  public void rejectPrivateFieldWithoutSetter() throws IOException {
+    writeSource("sample/Hidden.java",
+        "package sample;",
+        "@org.luncert.objectmocker.annotation.Mockable",
+        "public class Hidden {",
+        "  private String secret;",
+        "}");
+    List<String> errors = compile();
+    Assert.assertEquals(1, errors.size());
+    Assert.assertTrue(errors.get(0).contains("secret"));
+  }
+
+  @Test
+  public void rejectClassWithoutNoArgConstructor() throws IOException {
+    writeSource("sample/Point.java",
+        "package sample;",
+        "@org.luncert.objectmocker.annotation.Mockable",
+        "public class Point {",
+        "  public int x;",
+        "  public Point(int x) { this.x = x; }",
+        "}");
+    List<String> errors = compile();
+    Assert.assertEquals(1, errors.size());
+    Assert.assertTrue(errors.get(0).contains("no-arg constructor"));
+  }
+
+  private void writeSource(String path, String... lines) throws IOException {
+    File file = new File(sourceDir, path);
+    file.getParentFile().mkdirs();
+    Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+  }
+
+  private List<String> compile() throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager fileManager =
+             compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+      List<File> sources = new ArrayList<>();
+      Files.walk(sourceDir.toPath())
+          .filter(p -> p.toString().endsWith(".java"))
+          .forEach(p -> sources.add(p.toFile()));
+      String classpath = new File(GeneratedObjectGenerator.class.getProtectionDomain()
+          .getCodeSource().getLocation().getPath()).getPath();
+      JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+          Arrays.asList("-classpath", classpath, "-d", outputDir.getPath(),
+              "-s", outputDir.getPath()),
+          null, fileManager.getJavaFileObjectsFromFiles(sources));
+      task.setProcessors(Arrays.asList(new MockableProcessor()));
+      task.call();
+    }
+    List<String> errors = new ArrayList<>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+        errors.add(diagnostic.getMessage(null));
+      }
+    }
+    return errors;
+  }
+
+  private static Object read(Object target, String fieldName) throws Exception {
+    Class<?> clazz = target.getClass();
+    while (clazz != null) {
+      try {
+        Field field = clazz.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return field.get(target);
+      } catch (NoSuchFieldException e) {
+        clazz = clazz.getSuperclass();
+      }
+    }
+    throw new NoSuchFieldException(fieldName);
+  }
+}
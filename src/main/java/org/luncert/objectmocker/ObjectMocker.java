@@ -1,8 +1,10 @@
 package org.luncert.objectmocker;
 
+import org.luncert.objectmocker.core.CyclePolicy;
 import org.luncert.objectmocker.core.ObjectGenerator;
 import org.luncert.objectmocker.core.ObjectMockContext;
 import org.luncert.objectmocker.core.RealObjectMockContext;
+import org.luncert.objectmocker.random.RandomSource;
 
 /**
  * ObjectMockContext builder.
@@ -32,6 +34,54 @@ public class ObjectMocker {
       return this;
     }
 
+    /**
+     * Set RandomSource used by generators, default to {@link RandomSource#threadLocal()}.
+     * @param randomSource RandomSource
+     */
+    public ObjectMockContextBuilder randomSource(RandomSource randomSource) {
+      context.setRandomSource(randomSource);
+      return this;
+    }
+
+    /**
+     * Enable seeded mode, objects of bulk generation become reproducible by their index.
+     * @param seed context seed
+     */
+    public ObjectMockContextBuilder seed(long seed) {
+      context.setSeed(seed);
+      return this;
+    }
+
+    /**
+     * Set max depth of generated object graph, nested objects deeper than it are assigned null.
+     * Default to 64.
+     * @param maxDepth max depth, root object is at depth 0
+     */
+    public ObjectMockContextBuilder maxDepth(int maxDepth) {
+      context.setMaxDepth(maxDepth);
+      return this;
+    }
+
+    /**
+     * Set what to assign when a nested object has the same type as one of its ancestors,
+     * default to {@link CyclePolicy#NULL}.
+     * @param cyclePolicy CyclePolicy
+     */
+    public ObjectMockContextBuilder cyclePolicy(CyclePolicy cyclePolicy) {
+      context.setCyclePolicy(cyclePolicy);
+      return this;
+    }
+
+    /**
+     * Set max number of objects generated for one root object, so that a huge graph fails
+     * with GeneratorException instead of exhausting memory. Default to 1,000,000.
+     * @param maxObjects max number of objects
+     */
+    public ObjectMockContextBuilder maxObjects(long maxObjects) {
+      context.setMaxObjects(maxObjects);
+      return this;
+    }
+
     /**
      * Create ObjectMockContext.
      * @return ObjectMockContext
@@ -0,0 +1,18 @@
+package org.luncert.objectmocker.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declare objectmocker-processor should emit a {@link
+ * org.luncert.objectmocker.core.GeneratedObjectGenerator} for target class at compile time.
+ * @author Luncert
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface Mockable {
+}
@@ -0,0 +1,135 @@
+package org.luncert.objectmocker.builtingenerator;
+
+import org.luncert.objectmocker.random.RandomSource;
+
+/**
+ * Alphabet, characters random strings are drawn from. Each random long is split into chunks
+ * of 16 bits, or 32 bits for alphabets larger than 256 characters, and every chunk is mapped
+ * onto the character table by multiplying and shifting, which needs neither division nor
+ * rejection. Alphabets of power of 2 size are uniform, others are biased by less than 0.4%.
+ * Strings are written into a reusable buffer of current thread, so generating a string
+ * creates nothing but the string itself.
+ * @author Luncert
+ */
+public final class Alphabet {
+
+  public static final Alphabet NUMERIC = of("0123456789");
+
+  public static final Alphabet ALPHABETIC =
+      of("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz");
+
+  public static final Alphabet ALPHANUMERIC =
+      of("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789");
+
+  public static final Alphabet HEX = of("0123456789abcdef");
+
+  public static final Alphabet ASCII_PRINTABLE = of(asciiPrintable());
+
+  // strings longer than this are written into a new buffer, so large buffers aren't retained
+  private static final int MAX_BUFFER_LENGTH = 1024;
+
+  private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[64]);
+
+  private static final int MAX_NARROW_SIZE = 256;
+
+  private final char[] table;
+  // whether 32 bits chunks are needed to keep bias small
+  private final boolean wide;
+
+  private Alphabet(char[] table) {
+    this.table = table;
+    this.wide = table.length > MAX_NARROW_SIZE;
+  }
+
+  /**
+   * Create alphabet of custom characters, repeated characters are drawn more often.
+   * @param chars characters
+   * @return Alphabet
+   */
+  public static Alphabet of(String chars) {
+    if (chars == null || chars.isEmpty()) {
+      throw new IllegalArgumentException("chars must be non-empty");
+    }
+    return new Alphabet(chars.toCharArray());
+  }
+
+  private static String asciiPrintable() {
+    StringBuilder builder = new StringBuilder();
+    for (char c = ' '; c <= '~'; c++) {
+      builder.append(c);
+    }
+    return builder.toString();
+  }
+
+  public int size() {
+    return table.length;
+  }
+
+  /**
+   * Generate a random string.
+   * @param random RandomSource
+   * @param len length of string
+   * @return string
+   */
+  String randomString(RandomSource random, int len) {
+    char[] buffer = len <= MAX_BUFFER_LENGTH ? BUFFER.get() : new char[len];
+    if (buffer.length < len) {
+      buffer = new char[Math.max(len, buffer.length << 1)];
+      BUFFER.set(buffer);
+    }
+    fill(random, buffer, 0, len);
+    return new String(buffer, 0, len);
+  }
+
+  /**
+   * Write random characters into buffer.
+   * @param random RandomSource
+   * @param buffer buffer to write into
+   * @param offset index of first character
+   * @param len number of characters
+   */
+  void fill(RandomSource random, char[] buffer, int offset, int len) {
+    char[] table = this.table;
+    long size = table.length;
+    int i = offset;
+    int end = offset + len;
+    if (wide) {
+      while (i < end) {
+        long rnd = random.nextLong();
+        buffer[i++] = table[(int) (((rnd & 0xffffffffL) * size) >>> 32)];
+        if (i < end) {
+          buffer[i++] = table[(int) (((rnd >>> 32) * size) >>> 32)];
+        }
+      }
+    } else {
+      for (; i + 4 <= end; i += 4) {
+        long rnd = random.nextLong();
+        buffer[i] = table[narrowIndex(rnd, size)];
+        buffer[i + 1] = table[narrowIndex(rnd >>> 16, size)];
+        buffer[i + 2] = table[narrowIndex(rnd >>> 32, size)];
+        buffer[i + 3] = table[narrowIndex(rnd >>> 48, size)];
+      }
+      if (i < end) {
+        for (long rnd = random.nextLong(); i < end; i++, rnd >>>= 16) {
+          buffer[i] = table[narrowIndex(rnd, size)];
+        }
+      }
+    }
+  }
+
+  /**
+   * Pick one random character.
+   * @param random RandomSource
+   * @return character
+   */
+  char next(RandomSource random) {
+    return table[random.nextInt(table.length)];
+  }
+
+  /**
+   * Map lowest 16 bits of rnd onto [0, size).
+   */
+  private static int narrowIndex(long rnd, long size) {
+    return (int) (((rnd & 0xffffL) * size) >>> 16);
+  }
+}
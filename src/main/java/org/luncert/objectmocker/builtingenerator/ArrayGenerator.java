@@ -0,0 +1,178 @@
+package org.luncert.objectmocker.builtingenerator;
+
+import java.lang.reflect.Array;
+
+import org.luncert.objectmocker.annotation.DynamicTypeGenerator;
+import org.luncert.objectmocker.core.AbstractGenerator;
+import org.luncert.objectmocker.core.BooleanValueGenerator;
+import org.luncert.objectmocker.core.DoubleValueGenerator;
+import org.luncert.objectmocker.core.IntValueGenerator;
+import org.luncert.objectmocker.core.LongValueGenerator;
+import org.luncert.objectmocker.core.ObjectMockContext;
+import org.luncert.objectmocker.core.ObjectSupplier;
+import org.luncert.objectmocker.random.RandomSource;
+
+/**
+ * ArrayGenerator, generates an array of the component type it is invoked with.
+ * Primitive arrays are filled in bulk: bytes with {@link RandomSource#nextBytes(byte[])},
+ * other primitives with a plain loop over the random source, or over the element generator
+ * if it implements the matching primitive value generator, so elements are never boxed.
+ * Floating point elements are in [0, 1) by default.
+ * @author Luncert
+ */
+@DynamicTypeGenerator
+class ArrayGenerator extends AbstractGenerator<Object> {
+
+  private ArrayGenerator(ObjectSupplier<Object> supplier) {
+    super(supplier);
+  }
+
+  static ArrayGenerator withLength(int len) {
+    checkLength(len);
+    return new ArrayGenerator((ctx, clazz) -> newArray(ctx, clazz, len, null, null));
+  }
+
+  static ArrayGenerator withLength(int minLen, int maxLen) {
+    checkLength(minLen);
+    if (maxLen < minLen) {
+      throw new IllegalArgumentException("maxLen must not be smaller than minLen");
+    }
+    if (maxLen == Integer.MAX_VALUE) {
+      // upper bound of random length is exclusive
+      throw new IllegalArgumentException("maxLen must be smaller than Integer.MAX_VALUE");
+    }
+    return new ArrayGenerator((ctx, clazz) ->
+        newArray(ctx, clazz, random(ctx).nextInt(minLen, maxLen + 1), null, null));
+  }
+
+  static ArrayGenerator withElementGenerator(int len, ObjectSupplier<Object> elementGenerator) {
+    checkLength(len);
+    return new ArrayGenerator((ctx, clazz) -> newArray(ctx, clazz, len, elementGenerator, null));
+  }
+
+  static ArrayGenerator withElementGenerator(int len, AbstractGenerator<?> elementGenerator) {
+    checkLength(len);
+    ObjectSupplier<Object> supplier = elementGenerator::generate;
+    return new ArrayGenerator((ctx, clazz) ->
+        newArray(ctx, clazz, len, supplier, elementGenerator));
+  }
+
+  private static void checkLength(int len) {
+    if (len < 0) {
+      throw new IllegalArgumentException("len must not be negative");
+    }
+  }
+
+  /**
+   * Create and fill an array.
+   * @param componentType component type of array
+   * @param elementGenerator generates boxed elements, null to use context or random source
+   * @param valueGenerator generator may implement primitive value generators
+   * @return array
+   */
+  private static Object newArray(ObjectMockContext ctx, Class<?> componentType, int len,
+                                 ObjectSupplier<Object> elementGenerator,
+                                 Object valueGenerator) {
+    if (!componentType.isPrimitive()) {
+      Object[] array = (Object[]) Array.newInstance(componentType, len);
+      for (int i = 0; i < len; i++) {
+        array[i] = elementGenerator != null
+            ? elementGenerator.getObject(ctx, componentType) : ctx.generate(componentType);
+      }
+      return array;
+    }
+    if (elementGenerator != null && !isValueGenerator(componentType, valueGenerator)) {
+      // customized element generator only provides boxed values
+      Object array = Array.newInstance(componentType, len);
+      for (int i = 0; i < len; i++) {
+        Array.set(array, i, elementGenerator.getObject(ctx, componentType));
+      }
+      return array;
+    }
+
+    RandomSource random = random(ctx);
+    if (int.class.equals(componentType)) {
+      int[] array = new int[len];
+      if (valueGenerator instanceof IntValueGenerator) {
+        IntValueGenerator generator = (IntValueGenerator) valueGenerator;
+        for (int i = 0; i < len; i++) {
+          array[i] = generator.nextInt(ctx);
+        }
+      } else {
+        for (int i = 0; i < len; i++) {
+          array[i] = random.nextInt();
+        }
+      }
+      return array;
+    } else if (long.class.equals(componentType)) {
+      long[] array = new long[len];
+      if (valueGenerator instanceof LongValueGenerator) {
+        LongValueGenerator generator = (LongValueGenerator) valueGenerator;
+        for (int i = 0; i < len; i++) {
+          array[i] = generator.nextLong(ctx);
+        }
+      } else {
+        for (int i = 0; i < len; i++) {
+          array[i] = random.nextLong();
+        }
+      }
+      return array;
+    } else if (double.class.equals(componentType)) {
+      double[] array = new double[len];
+      if (valueGenerator instanceof DoubleValueGenerator) {
+        DoubleValueGenerator generator = (DoubleValueGenerator) valueGenerator;
+        for (int i = 0; i < len; i++) {
+          array[i] = generator.nextDouble(ctx);
+        }
+      } else {
+        for (int i = 0; i < len; i++) {
+          array[i] = random.nextDouble();
+        }
+      }
+      return array;
+    } else if (boolean.class.equals(componentType)) {
+      boolean[] array = new boolean[len];
+      if (valueGenerator instanceof BooleanValueGenerator) {
+        BooleanValueGenerator generator = (BooleanValueGenerator) valueGenerator;
+        for (int i = 0; i < len; i++) {
+          array[i] = generator.nextBoolean(ctx);
+        }
+      } else {
+        for (int i = 0; i < len; i++) {
+          array[i] = random.nextBoolean();
+        }
+      }
+      return array;
+    } else if (byte.class.equals(componentType)) {
+      byte[] array = new byte[len];
+      random.nextBytes(array);
+      return array;
+    } else if (short.class.equals(componentType)) {
+      short[] array = new short[len];
+      for (int i = 0; i < len; i++) {
+        array[i] = (short) random.nextInt();
+      }
+      return array;
+    } else if (char.class.equals(componentType)) {
+      char[] array = new char[len];
+      for (int i = 0; i < len; i++) {
+        array[i] = (char) random.nextInt();
+      }
+      return array;
+    } else {
+      float[] array = new float[len];
+      for (int i = 0; i < len; i++) {
+        // 24 random bits, so value never rounds up to 1
+        array[i] = (random.nextInt() >>> 8) * 0x1.0p-24f;
+      }
+      return array;
+    }
+  }
+
+  private static boolean isValueGenerator(Class<?> componentType, Object valueGenerator) {
+    return int.class.equals(componentType) && valueGenerator instanceof IntValueGenerator
+        || long.class.equals(componentType) && valueGenerator instanceof LongValueGenerator
+        || double.class.equals(componentType) && valueGenerator instanceof DoubleValueGenerator
+        || boolean.class.equals(componentType) && valueGenerator instanceof BooleanValueGenerator;
+  }
+}
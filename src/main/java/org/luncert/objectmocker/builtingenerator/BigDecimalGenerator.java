@@ -2,7 +2,6 @@ package org.luncert.objectmocker.builtingenerator;
 
 import java.math.BigDecimal;
 
-import org.apache.commons.lang3.RandomUtils;
 import org.luncert.objectmocker.core.AbstractGenerator;
 import org.luncert.objectmocker.core.ObjectSupplier;
 
@@ -23,7 +22,7 @@ class BigDecimalGenerator extends AbstractGenerator<BigDecimal> {
 
   static BigDecimalGenerator rangeFrom(Double start, Double end) {
     return new BigDecimalGenerator(
-        (ctx, clz) -> BigDecimal.valueOf(RandomUtils.nextDouble(start, end)));
+        (ctx, clz) -> BigDecimal.valueOf(random(ctx).nextDouble(start, end)));
   }
 }
 
@@ -1,15 +1,15 @@
 package org.luncert.objectmocker.builtingenerator;
 
-import org.apache.commons.lang3.RandomUtils;
 import org.luncert.objectmocker.core.AbstractGenerator;
-import org.luncert.objectmocker.core.ObjectSupplier;
+import org.luncert.objectmocker.core.BooleanValueGenerator;
+import org.luncert.objectmocker.core.ObjectMockContext;
 
-class BooleanGenerator extends AbstractGenerator<Boolean> {
+class BooleanGenerator extends AbstractGenerator<Boolean> implements BooleanValueGenerator {
 
   private static BooleanGenerator instance;
 
-  private BooleanGenerator(ObjectSupplier<Boolean> supplier) {
-    super(supplier);
+  private BooleanGenerator() {
+    super((ctx, clz) -> random(ctx).nextBoolean());
   }
 
   /**
@@ -18,8 +18,13 @@ class BooleanGenerator extends AbstractGenerator<Boolean> {
    */
   static BooleanGenerator singleton() {
     if (instance == null) {
-      instance = new BooleanGenerator((ctx, clz) -> RandomUtils.nextBoolean());
+      instance = new BooleanGenerator();
     }
     return instance;
   }
+
+  @Override
+  public boolean nextBoolean(ObjectMockContext context) {
+    return random(context).nextBoolean();
+  }
 }
@@ -1,5 +1,8 @@
 package org.luncert.objectmocker.builtingenerator;
 
+import java.math.BigDecimal;
+import java.util.UUID;
+
 import org.luncert.objectmocker.core.AbstractGenerator;
 import org.luncert.objectmocker.core.ObjectSupplier;
 
@@ -12,6 +15,22 @@ public final class BuiltinGeneratorBuilder {
   private BuiltinGeneratorBuilder() {
   }
 
+  public static ArrayGenerator arrayGenerator(int len) {
+    return ArrayGenerator.withLength(len);
+  }
+
+  public static ArrayGenerator arrayGenerator(int minLen, int maxLen) {
+    return ArrayGenerator.withLength(minLen, maxLen);
+  }
+
+  public static ArrayGenerator arrayGenerator(int len, ObjectSupplier<Object> elementGenerator) {
+    return ArrayGenerator.withElementGenerator(len, elementGenerator);
+  }
+
+  public static ArrayGenerator arrayGenerator(int len, AbstractGenerator<?> elementGenerator) {
+    return ArrayGenerator.withElementGenerator(len, elementGenerator);
+  }
+
   public static BigDecimalGenerator bigDecimalGenerator(Double defaultValue) {
     return BigDecimalGenerator.defaultValue(defaultValue);
   }
@@ -20,6 +39,12 @@ public final class BuiltinGeneratorBuilder {
     return BigDecimalGenerator.rangeFrom(start, end);
   }
 
+  public static PooledGenerator<BigDecimal> bigDecimalGenerator(Double start, Double end,
+                                                                int poolSize,
+                                                                PoolReusePolicy policy) {
+    return pooledGenerator(BigDecimalGenerator.rangeFrom(start, end), poolSize, policy);
+  }
+
   public static BooleanGenerator booleanGenerator() {
     return BooleanGenerator.singleton();
   }
@@ -68,6 +93,30 @@ public final class BuiltinGeneratorBuilder {
     return LongGenerator.rangeFrom(start, end);
   }
 
+  /**
+   * Wrap generator to hand out values of a pool filled in bulk, instead of generating
+   * a value each time.
+   * @param generator generates values of the pool
+   * @param poolSize number of values generated at once
+   * @param policy how values of the pool are handed out
+   * @return pooled generator
+   */
+  public static <T> PooledGenerator<T> pooledGenerator(AbstractGenerator<T> generator,
+                                                       int poolSize, PoolReusePolicy policy) {
+    return PooledGenerator.of(generator, poolSize, policy);
+  }
+
+  /**
+   * Create generator of strings matching regex, the regex is compiled once here.
+   * e.g. {@code regexGenerator("[A-Z]{3}-\\d{6}")}
+   * @param regex regular expression
+   * @return RegexGenerator
+   * @throws IllegalArgumentException if regex is invalid or uses unsupported syntax
+   */
+  public static RegexGenerator regexGenerator(String regex) {
+    return RegexGenerator.compile(regex);
+  }
+
   public static StringGenerator stringGenerator(String...rangeValue) {
     return StringGenerator.rangeFrom(rangeValue);
   }
@@ -76,10 +125,43 @@ public final class BuiltinGeneratorBuilder {
     return StringGenerator.withLength(len);
   }
 
+  public static StringGenerator stringGenerator(int minLen, int maxLen) {
+    return StringGenerator.withLength(minLen, maxLen);
+  }
+
+  public static StringGenerator stringGenerator(Alphabet alphabet, int len) {
+    return StringGenerator.withAlphabet(alphabet, len);
+  }
+
+  public static StringGenerator stringGenerator(Alphabet alphabet, int minLen, int maxLen) {
+    return StringGenerator.withAlphabet(alphabet, minLen, maxLen);
+  }
+
+  public static PooledGenerator<String> stringGenerator(int len, int poolSize,
+                                                       PoolReusePolicy policy) {
+    return pooledGenerator(StringGenerator.withLength(len), poolSize, policy);
+  }
+
   public static UuidGenerator uuidGenerator() {
     return UuidGenerator.singleton();
   }
 
+  public static PooledGenerator<UUID> uuidGenerator(int poolSize, PoolReusePolicy policy) {
+    return pooledGenerator(UuidGenerator.singleton(), poolSize, policy);
+  }
+
+  public static UuidGenerator timeOrderedUuidGenerator() {
+    return UuidGenerator.timeOrdered();
+  }
+
+  public static UuidStringGenerator uuidStringGenerator() {
+    return UuidStringGenerator.singleton();
+  }
+
+  public static UuidStringGenerator timeOrderedUuidStringGenerator() {
+    return UuidStringGenerator.timeOrdered();
+  }
+
   public static ZonedDateTimeGenerator zonedDateTimeGenerator() {
     return ZonedDateTimeGenerator.singleton();
   }
@@ -1,17 +1,22 @@
 package org.luncert.objectmocker.builtingenerator;
 
-import org.apache.commons.lang3.RandomUtils;
 import org.luncert.objectmocker.core.AbstractGenerator;
-import org.luncert.objectmocker.core.ObjectSupplier;
+import org.luncert.objectmocker.core.DoubleValueGenerator;
+import org.luncert.objectmocker.core.ObjectMockContext;
+import org.luncert.objectmocker.random.RandomSource;
 
-class DoubleGenerator extends AbstractGenerator<Double> {
+class DoubleGenerator extends AbstractGenerator<Double> implements DoubleValueGenerator {
 
-  private DoubleGenerator(ObjectSupplier<Double> supplier) {
-    super(supplier);
+  private final DoubleValueGenerator delegate;
+
+  private DoubleGenerator(DoubleValueGenerator delegate) {
+    super((ctx, clz) -> delegate.nextDouble(ctx));
+    this.delegate = delegate;
   }
 
   static DoubleGenerator defaultValue(Double defaultValue) {
-    return new DoubleGenerator((ctx, clz) -> defaultValue);
+    final double value = defaultValue;
+    return new DoubleGenerator(ctx -> value);
   }
 
   static DoubleGenerator rangeFrom(Double start, Double end) {
@@ -19,11 +24,20 @@ class DoubleGenerator extends AbstractGenerator<Double> {
       throw new IllegalArgumentException("end must be bigger than start");
     }
     boolean overflow = end - start < 0;
+    final double s = start;
     final double e1 = overflow ? Integer.MAX_VALUE : end - start;
     // -Integer.MIN_VALUE is equals to Integer.MIN_VALUE,
     // so I add 1 to e2 in case of e2 = Integer.MIN_VALUE
     final double e2 = overflow ? -(start + 1) - (Integer.MAX_VALUE - end) : 0;
     return new DoubleGenerator(
-        (ctx, clz) -> (RandomUtils.nextDouble(0, e1) + start + RandomUtils.nextDouble(0, e2)));
+        ctx -> {
+          RandomSource random = random(ctx);
+          return random.nextDouble(0, e1) + s + random.nextDouble(0, e2);
+        });
+  }
+
+  @Override
+  public double nextDouble(ObjectMockContext context) {
+    return delegate.nextDouble(context);
   }
 }
@@ -1,6 +1,5 @@
 package org.luncert.objectmocker.builtingenerator;
 
-import org.apache.commons.lang3.RandomUtils;
 import org.luncert.objectmocker.annotation.DynamicTypeGenerator;
 import org.luncert.objectmocker.core.AbstractGenerator;
 import org.luncert.objectmocker.core.ObjectSupplier;
@@ -27,7 +26,7 @@ class EnumGenerator extends AbstractGenerator<Object> {
     checkObjectType(rangeValue[0].getClass());
 
     return new EnumGenerator((ctx, clz) ->
-        rangeValue[RandomUtils.nextInt(0, rangeValue.length)]);
+        rangeValue[random(ctx).nextInt(rangeValue.length)]);
   }
 
   private static void checkObjectType(Class clazz) {
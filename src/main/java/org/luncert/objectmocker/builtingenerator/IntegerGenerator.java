@@ -1,17 +1,21 @@
 package org.luncert.objectmocker.builtingenerator;
 
-import org.apache.commons.lang3.RandomUtils;
 import org.luncert.objectmocker.core.AbstractGenerator;
-import org.luncert.objectmocker.core.ObjectSupplier;
+import org.luncert.objectmocker.core.IntValueGenerator;
+import org.luncert.objectmocker.core.ObjectMockContext;
+import org.luncert.objectmocker.random.RandomSource;
 
-class IntegerGenerator extends AbstractGenerator<Integer> {
+class IntegerGenerator extends AbstractGenerator<Integer> implements IntValueGenerator {
 
-  private IntegerGenerator(ObjectSupplier<Integer> supplier) {
-    super(supplier);
+  private final IntValueGenerator delegate;
+
+  private IntegerGenerator(IntValueGenerator delegate) {
+    super((ctx, clz) -> delegate.nextInt(ctx));
+    this.delegate = delegate;
   }
 
   static IntegerGenerator defaultValue(int defaultValue) {
-    return new IntegerGenerator((ctx, clz) -> defaultValue);
+    return new IntegerGenerator(ctx -> defaultValue);
   }
 
   static IntegerGenerator rangeFrom(int start, int end) {
@@ -24,6 +28,14 @@ class IntegerGenerator extends AbstractGenerator<Integer> {
     // so I add 1 to e2 in case of e2 = Integer.MIN_VALUE
     final int e2 = overflow ? -(start + 1) - (Integer.MAX_VALUE - end) : 0;
     return new IntegerGenerator(
-        (ctx, clz) -> (RandomUtils.nextInt(0, e1) + start + RandomUtils.nextInt(0, e2)));
+        ctx -> {
+          RandomSource random = random(ctx);
+          return random.nextInt(0, e1) + start + random.nextInt(0, e2);
+        });
+  }
+
+  @Override
+  public int nextInt(ObjectMockContext context) {
+    return delegate.nextInt(context);
   }
 }
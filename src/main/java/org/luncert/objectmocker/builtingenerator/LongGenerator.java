@@ -1,18 +1,23 @@
 package org.luncert.objectmocker.builtingenerator;
 
-import org.apache.commons.lang3.RandomUtils;
 import org.luncert.objectmocker.core.AbstractGenerator;
-import org.luncert.objectmocker.core.ObjectSupplier;
+import org.luncert.objectmocker.core.LongValueGenerator;
+import org.luncert.objectmocker.core.ObjectMockContext;
+import org.luncert.objectmocker.random.RandomSource;
 
-class LongGenerator extends AbstractGenerator<Long> {
+class LongGenerator extends AbstractGenerator<Long> implements LongValueGenerator {
 
-  private LongGenerator(ObjectSupplier<Long> supplier) {
-    super(supplier);
+  private final LongValueGenerator delegate;
+
+  private LongGenerator(LongValueGenerator delegate) {
+    super((ctx, clz) -> delegate.nextLong(ctx));
+    this.delegate = delegate;
   }
 
   static LongGenerator defaultValue(Long defaultValue) {
+    final long value = defaultValue;
     return new LongGenerator(
-        (ctx, clz) -> defaultValue);
+        ctx -> value);
   }
 
   static LongGenerator rangeFrom(Long start, Long end) {
@@ -20,9 +25,18 @@ class LongGenerator extends AbstractGenerator<Long> {
       throw new IllegalArgumentException("end must be bigger than start");
     }
     boolean overflow = end - start < 0;
+    final long s = start;
     final long e1 = overflow ? Long.MAX_VALUE : end - start;
     final long e2 = overflow ? -(start + 1) - (Long.MAX_VALUE - end) : 0;
     return new LongGenerator(
-        (ctx, clz) -> (RandomUtils.nextLong(0, e1) + start + RandomUtils.nextLong(0, e2)));
+        ctx -> {
+          RandomSource random = random(ctx);
+          return random.nextLong(0, e1) + s + random.nextLong(0, e2);
+        });
+  }
+
+  @Override
+  public long nextLong(ObjectMockContext context) {
+    return delegate.nextLong(context);
   }
 }
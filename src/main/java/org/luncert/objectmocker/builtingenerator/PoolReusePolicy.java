@@ -0,0 +1,29 @@
+package org.luncert.objectmocker.builtingenerator;
+
+/**
+ * PoolReusePolicy, how a pooled generator hands out values of its pool.
+ * @author Luncert
+ */
+public enum PoolReusePolicy {
+
+  /**
+   * Fill the pool once and hand out its values in order, repeating them forever.
+   */
+  CYCLE,
+
+  /**
+   * Fill the pool once and hand out a random value of it each time.
+   */
+  RANDOM,
+
+  /**
+   * Hand out each value once, the pool is filled again on the calling thread once exhausted.
+   */
+  REFILL,
+
+  /**
+   * Hand out each value once, the next pool is filled on a background thread
+   * while the current one is handed out.
+   */
+  REFILL_ASYNC
+}
@@ -0,0 +1,155 @@
+package org.luncert.objectmocker.builtingenerator;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.luncert.objectmocker.core.AbstractGenerator;
+import org.luncert.objectmocker.core.ObjectMockContext;
+import org.luncert.objectmocker.exception.GeneratorException;
+
+/**
+ * PooledGenerator, generates a pool of values with the delegate generator in bulk, and hands
+ * them out by index according to its {@link PoolReusePolicy}. It fits builtin types which are
+ * expensive to generate, e.g. {@link java.util.UUID}, {@link String} and
+ * {@link java.math.BigDecimal}. The pool is filled lazily with the context and class the
+ * generator is first invoked with.
+ * With seeded context, the pool is filled once from a RandomSource derived only from seed and
+ * class, and each value is picked at random with the RandomSource of the object being generated,
+ * whatever the policy is, so generated objects don't depend on the order they're generated in.
+ * @author Luncert
+ * @param <T> target type for generation.
+ */
+class PooledGenerator<T> extends AbstractGenerator<T> {
+
+  @SuppressWarnings("unchecked")
+  private PooledGenerator(ValuePool pool) {
+    super((ctx, clz) -> (T) pool.next(ctx, clz));
+  }
+
+  static <T> PooledGenerator<T> of(AbstractGenerator<T> delegate, int poolSize,
+                                   PoolReusePolicy policy) {
+    if (delegate == null || policy == null) {
+      throw new IllegalArgumentException("delegate and policy must not be null");
+    }
+    if (poolSize <= 0) {
+      throw new IllegalArgumentException("poolSize must be positive");
+    }
+    return new PooledGenerator<>(new ValuePool(delegate, poolSize, policy));
+  }
+
+  /**
+   * ValuePool, current pool of values and how to fill the next one.
+   */
+  private static final class ValuePool {
+
+    private final AbstractGenerator<?> delegate;
+    private final int poolSize;
+    private final PoolReusePolicy policy;
+    private volatile Values values;
+    // fixed pool used by seeded context
+    private volatile Object[] seededValues;
+    // next values being filled in background, only used by REFILL_ASYNC
+    private CompletableFuture<Object[]> upcoming;
+
+    private ValuePool(AbstractGenerator<?> delegate, int poolSize, PoolReusePolicy policy) {
+      this.delegate = delegate;
+      this.poolSize = poolSize;
+      this.policy = policy;
+    }
+
+    private Object next(ObjectMockContext ctx, Class<?> clazz) {
+      if (ctx != null && ctx.isSeeded()) {
+        Object[] array = seededValues;
+        if (array == null) {
+          array = initSeeded(ctx, clazz);
+        }
+        return array[ctx.getRandomSource().nextInt(poolSize)];
+      }
+      Values current = values;
+      if (current == null) {
+        current = init(ctx, clazz);
+      }
+      switch (policy) {
+        case CYCLE:
+          return current.array[(current.next.getAndIncrement() & Integer.MAX_VALUE) % poolSize];
+        case RANDOM:
+          return current.array[random(ctx).nextInt(poolSize)];
+        default:
+          while (true) {
+            int index = current.next.getAndIncrement();
+            // index overflows only if many threads keep drawing from an exhausted pool
+            if (index >= 0 && index < poolSize) {
+              return current.array[index];
+            }
+            current = swap(current, ctx, clazz);
+          }
+      }
+    }
+
+    private synchronized Values init(ObjectMockContext ctx, Class<?> clazz) {
+      if (values == null) {
+        values = new Values(fill(ctx, clazz));
+        if (policy == PoolReusePolicy.REFILL_ASYNC) {
+          upcoming = fillAsync(ctx, clazz);
+        }
+      }
+      return values;
+    }
+
+    private synchronized Object[] initSeeded(ObjectMockContext ctx, Class<?> clazz) {
+      if (seededValues == null) {
+        String key = PooledGenerator.class.getName() + ':'
+            + (clazz != null ? clazz.getName() : "");
+        seededValues = ctx.detached(key, () -> fill(ctx, clazz));
+      }
+      return seededValues;
+    }
+
+    /**
+     * Replace exhausted values with new ones, unless another thread has done so.
+     */
+    private synchronized Values swap(Values exhausted, ObjectMockContext ctx, Class<?> clazz) {
+      if (values == exhausted) {
+        if (policy == PoolReusePolicy.REFILL_ASYNC) {
+          Object[] array;
+          try {
+            array = upcoming.join();
+          } catch (RuntimeException e) {
+            throw new GeneratorException(e.getCause() != null ? e.getCause() : e,
+                "Failed to fill value pool in background.");
+          }
+          values = new Values(array);
+          upcoming = fillAsync(ctx, clazz);
+        } else {
+          values = new Values(fill(ctx, clazz));
+        }
+      }
+      return values;
+    }
+
+    private CompletableFuture<Object[]> fillAsync(ObjectMockContext ctx, Class<?> clazz) {
+      return CompletableFuture.supplyAsync(() -> fill(ctx, clazz));
+    }
+
+    private Object[] fill(ObjectMockContext ctx, Class<?> clazz) {
+      Object[] array = new Object[poolSize];
+      for (int i = 0; i < poolSize; i++) {
+        array[i] = delegate.generate(ctx, clazz);
+      }
+      return array;
+    }
+  }
+
+  /**
+   * Values, filled pool handed out by a shared cursor.
+   */
+  private static final class Values {
+
+    private final Object[] array;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private Values(Object[] array) {
+      this.array = array;
+    }
+  }
+}
@@ -0,0 +1,528 @@
+package org.luncert.objectmocker.builtingenerator;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.luncert.objectmocker.core.AbstractGenerator;
+import org.luncert.objectmocker.core.ObjectSupplier;
+import org.luncert.objectmocker.random.RandomSource;
+
+/**
+ * RegexGenerator, generates strings matching a regular expression. The pattern is compiled
+ * once into a tree of sampling nodes, generating a value walks the tree and writes characters
+ * into a reusable buffer of current thread, then creates the string.
+ * Repeated character classes like {@code [A-Z]{3}} or {@code \d{6}} are filled in bulk with
+ * {@link Alphabet}.
+ * Supported syntax: literals and escapes, {@code .}, character classes with ranges and
+ * negation but without nested classes or intersections, {@code \d \w \s} and their
+ * negations, groups, {@code (?:)}, alternation, and quantifiers {@code * + ? {n} {n,} {n,m}}.
+ * Unbounded quantifiers repeat at most {@link #MAX_UNBOUNDED_REPEAT} more times than their
+ * minimum, negated classes and {@code .} draw from printable ASCII characters. Anchors
+ * {@code ^ $} are only supported where they always match, at the start and end of the pattern
+ * or of its alternation branches.
+ * @author Luncert
+ */
+class RegexGenerator extends AbstractGenerator<String> {
+
+  static final int MAX_UNBOUNDED_REPEAT = 8;
+
+  private static final int MAX_BUFFER_LENGTH = 1024;
+
+  private static final ThreadLocal<Output> OUTPUT = ThreadLocal.withInitial(Output::new);
+
+  private RegexGenerator(ObjectSupplier<String> supplier) {
+    super(supplier);
+  }
+
+  static RegexGenerator compile(String regex) {
+    if (regex == null) {
+      throw new IllegalArgumentException("regex must not be null");
+    }
+    Node root = new Parser(regex).parse();
+    return new RegexGenerator((ctx, clz) -> {
+      Output output = OUTPUT.get();
+      output.len = 0;
+      root.emit(random(ctx), output);
+      String value = new String(output.buffer, 0, output.len);
+      if (output.buffer.length > MAX_BUFFER_LENGTH) {
+        // don't retain buffer grown by an unusually long value
+        output.buffer = new char[64];
+      }
+      return value;
+    });
+  }
+
+  /**
+   * Output, growable character buffer.
+   */
+  private static final class Output {
+
+    private char[] buffer = new char[64];
+    private int len;
+
+    private void ensure(int extra) {
+      if (len + extra > buffer.length) {
+        char[] grown = new char[Math.max(len + extra, buffer.length << 1)];
+        System.arraycopy(buffer, 0, grown, 0, len);
+        buffer = grown;
+      }
+    }
+  }
+
+  /**
+   * Node, one compiled element of the pattern.
+   */
+  private abstract static class Node {
+
+    abstract void emit(RandomSource random, Output output);
+  }
+
+  private static final class Literal extends Node {
+
+    private final char[] chars;
+
+    private Literal(String chars) {
+      this.chars = chars.toCharArray();
+    }
+
+    @Override
+    void emit(RandomSource random, Output output) {
+      output.ensure(chars.length);
+      System.arraycopy(chars, 0, output.buffer, output.len, chars.length);
+      output.len += chars.length;
+    }
+  }
+
+  private static final class CharClass extends Node {
+
+    private final Alphabet alphabet;
+    private final int min;
+    private final int max;
+
+    private CharClass(Alphabet alphabet, int min, int max) {
+      this.alphabet = alphabet;
+      this.min = min;
+      this.max = max;
+    }
+
+    @Override
+    void emit(RandomSource random, Output output) {
+      if (min == 1 && max == 1) {
+        output.ensure(1);
+        output.buffer[output.len++] = alphabet.next(random);
+        return;
+      }
+      int count = min == max ? min : random.nextInt(min, max + 1);
+      output.ensure(count);
+      alphabet.fill(random, output.buffer, output.len, count);
+      output.len += count;
+    }
+  }
+
+  private static final class Sequence extends Node {
+
+    private final Node[] nodes;
+
+    private Sequence(Node[] nodes) {
+      this.nodes = nodes;
+    }
+
+    @Override
+    void emit(RandomSource random, Output output) {
+      for (Node node : nodes) {
+        node.emit(random, output);
+      }
+    }
+  }
+
+  private static final class Alternation extends Node {
+
+    private final Node[] branches;
+
+    private Alternation(Node[] branches) {
+      this.branches = branches;
+    }
+
+    @Override
+    void emit(RandomSource random, Output output) {
+      branches[random.nextInt(branches.length)].emit(random, output);
+    }
+  }
+
+  private static final class Repeat extends Node {
+
+    private final Node node;
+    private final int min;
+    private final int max;
+
+    private Repeat(Node node, int min, int max) {
+      this.node = node;
+      this.min = min;
+      this.max = max;
+    }
+
+    @Override
+    void emit(RandomSource random, Output output) {
+      int count = min == max ? min : random.nextInt(min, max + 1);
+      for (int i = 0; i < count; i++) {
+        node.emit(random, output);
+      }
+    }
+  }
+
+  /**
+   * Parser, recursive descent parser compiling pattern into nodes.
+   */
+  private static final class Parser {
+
+    private static final BitSet PRINTABLE = range(' ', '~');
+    private static final BitSet DIGITS = range('0', '9');
+    private static final BitSet WORDS = word();
+    private static final BitSet SPACES = chars(" \t\n\r\f\u000B");
+
+    private final String regex;
+    private int pos;
+    // whether an anchor has been parsed in current group
+    private boolean anchored;
+    // whether the alternation just parsed has a branch ending with '$'
+    private boolean endAnchored;
+
+    private Parser(String regex) {
+      this.regex = regex;
+    }
+
+    private Node parse() {
+      Node node = parseAlternation(true);
+      if (pos < regex.length()) {
+        throw error("Unmatched ')'");
+      }
+      return node;
+    }
+
+    /**
+     * Parse alternation.
+     * @param leading whether nothing could be generated before it
+     */
+    private Node parseAlternation(boolean leading) {
+      List<Node> branches = new ArrayList<>();
+      branches.add(parseSequence(leading));
+      boolean ended = endAnchored;
+      while (peek('|')) {
+        pos++;
+        branches.add(parseSequence(leading));
+        ended |= endAnchored;
+      }
+      endAnchored = ended;
+      return branches.size() == 1
+          ? branches.get(0) : new Alternation(branches.toArray(new Node[0]));
+    }
+
+    private Node parseSequence(boolean leading) {
+      List<Node> nodes = new ArrayList<>();
+      StringBuilder literal = new StringBuilder();
+      // set by '$', nothing may be generated after it
+      boolean ended = false;
+      while (pos < regex.length() && !peek('|') && !peek(')')) {
+        boolean empty = nodes.isEmpty() && literal.length() == 0;
+        if (peek('^')) {
+          if (!leading || !empty) {
+            throw error("Unsupported anchor '^' not at start of pattern");
+          }
+          pos++;
+          anchored = true;
+          continue;
+        } else if (peek('$')) {
+          pos++;
+          anchored = true;
+          ended = true;
+          continue;
+        } else if (ended) {
+          throw error("Unsupported anchor '$' not at end of pattern");
+        }
+
+        boolean group = peek('(');
+        boolean outerAnchored = anchored;
+        anchored = false;
+        Object atom = parseAtom(leading && empty);
+        boolean groupAnchored = anchored;
+        anchored |= outerAnchored;
+        int[] quantifier = parseQuantifier();
+        if (group) {
+          ended = endAnchored;
+          if (groupAnchored && quantifier != null && quantifier[1] > 1) {
+            throw error("Unsupported anchor in repeated group");
+          }
+        }
+        if (atom instanceof Character && quantifier == null) {
+          // merge adjacent literal characters
+          literal.append((char) atom);
+          continue;
+        }
+        if (literal.length() > 0) {
+          nodes.add(new Literal(literal.toString()));
+          literal.setLength(0);
+        }
+        nodes.add(quantify(atom, quantifier));
+      }
+      if (literal.length() > 0) {
+        nodes.add(new Literal(literal.toString()));
+      }
+      endAnchored = ended;
+      return nodes.size() == 1 ? nodes.get(0) : new Sequence(nodes.toArray(new Node[0]));
+    }
+
+    /**
+     * Parse one atom, anchors are parsed by sequence.
+     * @param leading whether nothing could be generated before it
+     * @return Character for literal, BitSet for character class, Node for group
+     */
+    private Object parseAtom(boolean leading) {
+      char c = regex.charAt(pos++);
+      switch (c) {
+        case '(':
+          if (regex.startsWith("?:", pos)) {
+            pos += 2;
+          } else if (peek('?')) {
+            throw error("Unsupported group construct");
+          }
+          Node group = parseAlternation(leading);
+          if (!peek(')')) {
+            throw error("Unclosed group");
+          }
+          pos++;
+          return group;
+        case '[':
+          return parseClass();
+        case '.':
+          return PRINTABLE;
+        case '\\':
+          return parseEscape();
+        case '*':
+        case '+':
+        case '?':
+        case '{':
+          pos--;
+          throw error("Dangling quantifier");
+        default:
+          return c;
+      }
+    }
+
+    /**
+     * Parse quantifier following an atom.
+     * @return {min, max}, or null if there is no quantifier
+     */
+    private int[] parseQuantifier() {
+      if (pos >= regex.length()) {
+        return null;
+      }
+      int[] quantifier;
+      switch (regex.charAt(pos)) {
+        case '*':
+          pos++;
+          quantifier = new int[]{0, MAX_UNBOUNDED_REPEAT};
+          break;
+        case '+':
+          pos++;
+          quantifier = new int[]{1, 1 + MAX_UNBOUNDED_REPEAT};
+          break;
+        case '?':
+          pos++;
+          quantifier = new int[]{0, 1};
+          break;
+        case '{':
+          pos++;
+          int min = parseNumber();
+          int max = min;
+          if (peek(',')) {
+            pos++;
+            max = peek('}') ? min + MAX_UNBOUNDED_REPEAT : parseNumber();
+          }
+          if (!peek('}')) {
+            throw error("Unclosed repetition");
+          }
+          pos++;
+          if (max < min) {
+            throw error("Illegal repetition range");
+          }
+          quantifier = new int[]{min, max};
+          break;
+        default:
+          return null;
+      }
+      // lazy and possessive quantifiers generate the same strings
+      if (peek('?') || peek('+')) {
+        pos++;
+      }
+      return quantifier;
+    }
+
+    private int parseNumber() {
+      int start = pos;
+      while (pos < regex.length() && Character.isDigit(regex.charAt(pos))) {
+        pos++;
+      }
+      if (start == pos) {
+        throw error("Illegal repetition");
+      }
+      return Integer.parseInt(regex.substring(start, pos));
+    }
+
+    private BitSet parseClass() {
+      boolean negated = peek('^');
+      if (negated) {
+        pos++;
+      }
+      BitSet set = new BitSet();
+      boolean first = true;
+      while (true) {
+        if (pos >= regex.length()) {
+          throw error("Unclosed character class");
+        }
+        char c = regex.charAt(pos++);
+        if (c == ']' && !first) {
+          break;
+        }
+        first = false;
+        if (c == '[' || c == '&' && peek('&')) {
+          // union and intersection of nested classes
+          throw error("Unsupported character class construct");
+        }
+        if (c == '\\') {
+          Object escaped = parseEscape();
+          if (escaped instanceof BitSet) {
+            set.or((BitSet) escaped);
+            continue;
+          }
+          c = (Character) escaped;
+        }
+        if (peek('-') && pos + 1 < regex.length() && regex.charAt(pos + 1) != ']') {
+          pos++;
+          char end = regex.charAt(pos++);
+          if (end == '[') {
+            throw error("Unsupported character class construct");
+          }
+          if (end == '\\') {
+            Object escaped = parseEscape();
+            if (escaped instanceof BitSet) {
+              throw error("Illegal character range");
+            }
+            end = (Character) escaped;
+          }
+          if (end < c) {
+            throw error("Illegal character range");
+          }
+          set.set(c, end + 1);
+        } else {
+          set.set(c);
+        }
+      }
+      if (negated) {
+        BitSet complement = (BitSet) PRINTABLE.clone();
+        complement.andNot(set);
+        set = complement;
+      }
+      if (set.isEmpty()) {
+        throw error("Empty character class");
+      }
+      return set;
+    }
+
+    /**
+     * Parse escape sequence after backslash.
+     * @return Character for escaped literal, BitSet for predefined class
+     */
+    private Object parseEscape() {
+      if (pos >= regex.length()) {
+        throw error("Unexpected end of pattern");
+      }
+      char c = regex.charAt(pos++);
+      switch (c) {
+        case 'd':
+          return DIGITS;
+        case 'D':
+          return complement(DIGITS);
+        case 'w':
+          return WORDS;
+        case 'W':
+          return complement(WORDS);
+        case 's':
+          return SPACES;
+        case 'S':
+          return complement(SPACES);
+        case 't':
+          return '\t';
+        case 'n':
+          return '\n';
+        case 'r':
+          return '\r';
+        case 'f':
+          return '\f';
+        default:
+          if (Character.isLetterOrDigit(c)) {
+            pos--;
+            throw error("Unsupported escape sequence");
+          }
+          return c;
+      }
+    }
+
+    private Node quantify(Object atom, int[] quantifier) {
+      int min = quantifier != null ? quantifier[0] : 1;
+      int max = quantifier != null ? quantifier[1] : 1;
+      if (atom instanceof Character) {
+        return new CharClass(Alphabet.of(String.valueOf((char) atom)), min, max);
+      } else if (atom instanceof BitSet) {
+        return new CharClass(toAlphabet((BitSet) atom), min, max);
+      }
+      Node node = (Node) atom;
+      return min == 1 && max == 1 ? node : new Repeat(node, min, max);
+    }
+
+    private static Alphabet toAlphabet(BitSet set) {
+      StringBuilder chars = new StringBuilder(set.cardinality());
+      for (int c = set.nextSetBit(0); c >= 0; c = set.nextSetBit(c + 1)) {
+        chars.append((char) c);
+      }
+      return Alphabet.of(chars.toString());
+    }
+
+    private boolean peek(char c) {
+      return pos < regex.length() && regex.charAt(pos) == c;
+    }
+
+    private IllegalArgumentException error(String description) {
+      return new IllegalArgumentException(
+          description + " near index " + pos + " of regex " + regex);
+    }
+
+    private static BitSet range(char from, char to) {
+      BitSet set = new BitSet();
+      set.set(from, to + 1);
+      return set;
+    }
+
+    private static BitSet chars(String chars) {
+      BitSet set = new BitSet();
+      for (char c : chars.toCharArray()) {
+        set.set(c);
+      }
+      return set;
+    }
+
+    private static BitSet word() {
+      BitSet set = range('a', 'z');
+      set.or(range('A', 'Z'));
+      set.or(DIGITS);
+      set.set('_');
+      return set;
+    }
+
+    private static BitSet complement(BitSet set) {
+      BitSet complement = (BitSet) PRINTABLE.clone();
+      complement.andNot(set);
+      return complement;
+    }
+  }
+}
@@ -1,9 +1,8 @@
 package org.luncert.objectmocker.builtingenerator;
 
-import org.apache.commons.lang3.RandomStringUtils;
-import org.apache.commons.lang3.RandomUtils;
 import org.luncert.objectmocker.core.AbstractGenerator;
 import org.luncert.objectmocker.core.ObjectSupplier;
+import org.luncert.objectmocker.random.RandomSource;
 
 class StringGenerator extends AbstractGenerator<String> {
 
@@ -12,11 +11,43 @@ class StringGenerator extends AbstractGenerator<String> {
   }
 
   static StringGenerator withLength(int len) {
+    return withAlphabet(Alphabet.ALPHABETIC, len);
+  }
+
+  static StringGenerator withLength(int minLen, int maxLen) {
+    return withAlphabet(Alphabet.ALPHABETIC, minLen, maxLen);
+  }
+
+  static StringGenerator withAlphabet(Alphabet alphabet, int len) {
+    checkAlphabet(alphabet);
     if (len <= 0) {
       throw new IllegalArgumentException("len must be positive");
     }
-    return new StringGenerator(
-        (ctx, clz) -> RandomStringUtils.randomAlphabetic(len));
+    return new StringGenerator((ctx, clz) -> alphabet.randomString(random(ctx), len));
+  }
+
+  static StringGenerator withAlphabet(Alphabet alphabet, int minLen, int maxLen) {
+    checkAlphabet(alphabet);
+    if (minLen <= 0) {
+      throw new IllegalArgumentException("minLen must be positive");
+    }
+    if (maxLen < minLen) {
+      throw new IllegalArgumentException("maxLen must not be smaller than minLen");
+    }
+    if (maxLen == Integer.MAX_VALUE) {
+      // upper bound of random length is exclusive
+      throw new IllegalArgumentException("maxLen must be smaller than Integer.MAX_VALUE");
+    }
+    return new StringGenerator((ctx, clz) -> {
+      RandomSource random = random(ctx);
+      return alphabet.randomString(random, random.nextInt(minLen, maxLen + 1));
+    });
+  }
+
+  private static void checkAlphabet(Alphabet alphabet) {
+    if (alphabet == null) {
+      throw new IllegalArgumentException("alphabet must not be null");
+    }
   }
 
   static StringGenerator rangeFrom(String...rangeValue) {
@@ -26,7 +57,7 @@ class StringGenerator extends AbstractGenerator<String> {
       return new StringGenerator((ctx, clz) -> rangeValue[0]);
     } else {
       return new StringGenerator(
-          (ctx, clz) -> rangeValue[RandomUtils.nextInt(0, rangeValue.length)]);
+          (ctx, clz) -> rangeValue[random(ctx).nextInt(rangeValue.length)]);
     }
   }
 }
@@ -1,12 +1,29 @@
 package org.luncert.objectmocker.builtingenerator;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.luncert.objectmocker.core.AbstractGenerator;
 import org.luncert.objectmocker.core.ObjectSupplier;
+import org.luncert.objectmocker.random.RandomSource;
 
+/**
+ * Generator for {@link java.util.UUID}, random bits are drawn from the RandomSource of context
+ * instead of SecureRandom. Version 4 UUIDs are fully random, version 7 UUIDs start with a
+ * millisecond timestamp and are strictly increasing across threads, so they keep database
+ * indexes append-only.
+ * @author Luncert
+ */
 class UuidGenerator extends AbstractGenerator<UUID> {
 
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private static final UuidGenerator TIME_ORDERED = new UuidGenerator((ctx, clz) ->
+      new UUID(nextTimeOrderedMsb(), randomLsb(random(ctx))));
+
+  // unix millis << 12 | counter of last version 7 UUID
+  private static final AtomicLong LAST_TIME_ORDERED = new AtomicLong();
+
   private static UuidGenerator instance;
 
   private UuidGenerator(ObjectSupplier<UUID> supplier) {
@@ -15,8 +32,70 @@ class UuidGenerator extends AbstractGenerator<UUID> {
 
   static UuidGenerator singleton() {
     if (instance == null) {
-      instance = new UuidGenerator((ctx, clz) -> UUID.randomUUID());
+      instance = new UuidGenerator((ctx, clz) -> {
+        RandomSource random = random(ctx);
+        return new UUID(randomMsb(random), randomLsb(random));
+      });
     }
     return instance;
   }
+
+  static UuidGenerator timeOrdered() {
+    return TIME_ORDERED;
+  }
+
+  /**
+   * Most significant bits of version 4 UUID.
+   */
+  static long randomMsb(RandomSource random) {
+    // set version 4, as UUID.randomUUID does
+    return (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+  }
+
+  /**
+   * Least significant bits with IETF variant, shared by version 4 and 7.
+   */
+  static long randomLsb(RandomSource random) {
+    return (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+  }
+
+  /**
+   * Most significant bits of version 7 UUID: 48 bits unix millis, version, and a 12 bits
+   * counter in rand_a, which keeps UUIDs of the same millisecond ordered. Counter overflow
+   * carries into the timestamp, so values never go backwards.
+   */
+  static long nextTimeOrderedMsb() {
+    long now = System.currentTimeMillis() << 12;
+    while (true) {
+      long last = LAST_TIME_ORDERED.get();
+      long next = now > last ? now : last + 1;
+      if (LAST_TIME_ORDERED.compareAndSet(last, next)) {
+        return (next >>> 12) << 16 | 0x7000L | (next & 0xfffL);
+      }
+    }
+  }
+
+  /**
+   * Format UUID bits like {@link UUID#toString()}, without creating the UUID.
+   */
+  static String format(long msb, long lsb) {
+    char[] chars = new char[36];
+    hex(chars, 0, msb >>> 32, 8);
+    chars[8] = '-';
+    hex(chars, 9, msb >>> 16, 4);
+    chars[13] = '-';
+    hex(chars, 14, msb, 4);
+    chars[18] = '-';
+    hex(chars, 19, lsb >>> 48, 4);
+    chars[23] = '-';
+    hex(chars, 24, lsb, 12);
+    return new String(chars);
+  }
+
+  private static void hex(char[] chars, int offset, long value, int digits) {
+    for (int i = offset + digits - 1; i >= offset; i--) {
+      chars[i] = HEX_DIGITS[(int) value & 0xf];
+      value >>>= 4;
+    }
+  }
 }
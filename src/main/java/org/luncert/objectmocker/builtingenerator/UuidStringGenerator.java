@@ -0,0 +1,34 @@
+package org.luncert.objectmocker.builtingenerator;
+
+import org.luncert.objectmocker.core.AbstractGenerator;
+import org.luncert.objectmocker.core.ObjectSupplier;
+import org.luncert.objectmocker.random.RandomSource;
+
+/**
+ * Generator for {@link String} fields holding UUIDs, the canonical form is written from
+ * random bits directly without creating {@link java.util.UUID}.
+ * @author Luncert
+ */
+class UuidStringGenerator extends AbstractGenerator<String> {
+
+  private static final UuidStringGenerator INSTANCE = new UuidStringGenerator((ctx, clz) -> {
+    RandomSource random = random(ctx);
+    return UuidGenerator.format(UuidGenerator.randomMsb(random), UuidGenerator.randomLsb(random));
+  });
+
+  private static final UuidStringGenerator TIME_ORDERED = new UuidStringGenerator((ctx, clz) ->
+      UuidGenerator.format(UuidGenerator.nextTimeOrderedMsb(),
+          UuidGenerator.randomLsb(random(ctx))));
+
+  private UuidStringGenerator(ObjectSupplier<String> supplier) {
+    super(supplier);
+  }
+
+  static UuidStringGenerator singleton() {
+    return INSTANCE;
+  }
+
+  static UuidStringGenerator timeOrdered() {
+    return TIME_ORDERED;
+  }
+}
@@ -4,6 +4,7 @@ import java.util.Objects;
 
 import org.luncert.objectmocker.annotation.DynamicTypeGenerator;
 import org.luncert.objectmocker.exception.GeneratorException;
+import org.luncert.objectmocker.random.RandomSource;
 
 /**
  * AbstractGenerator.
@@ -41,6 +42,26 @@ public abstract class AbstractGenerator<T> implements IObjectMockContextAware {
     return supplier.getObject(context, clazz);
   }
 
+  /**
+   * Invoke ObjectSupplier to generate object with specified context.
+   * @param context ObjectMockContext which is generating, instead of the bound one
+   * @param clazz target class
+   * @return generated object
+   * @throws GeneratorException generating exception
+   */
+  public T generate(ObjectMockContext context, Class<?> clazz) throws GeneratorException {
+    return supplier.getObject(context, clazz);
+  }
+
+  /**
+   * Get RandomSource of context, generator may be used without context.
+   * @param context ObjectMockContext
+   * @return RandomSource
+   */
+  protected static RandomSource random(ObjectMockContext context) {
+    return context != null ? context.getRandomSource() : RandomSource.threadLocal();
+  }
+
   boolean isDynamicTypeGenerator() {
     return dynamicTypeGenerator;
   }
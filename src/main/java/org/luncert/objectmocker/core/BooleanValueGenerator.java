@@ -0,0 +1,17 @@
+package org.luncert.objectmocker.core;
+
+/**
+ * Generator of primitive boolean values. ObjectGenerator writes fields of type boolean
+ * with it directly, so values are never boxed.
+ * @author Luncert
+ */
+@FunctionalInterface
+public interface BooleanValueGenerator {
+
+  /**
+   * Generate a boolean value.
+   * @param context ObjectMockContext which is generating, may be null
+   * @return boolean value
+   */
+  boolean nextBoolean(ObjectMockContext context);
+}
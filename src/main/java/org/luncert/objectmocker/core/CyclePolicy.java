@@ -0,0 +1,24 @@
+package org.luncert.objectmocker.core;
+
+/**
+ * CyclePolicy, decides what to assign when a nested object has the same type as one of its
+ * ancestors in the object graph being generated, e.g. a tree node or a parent back reference.
+ * @author Luncert
+ */
+public enum CyclePolicy {
+
+  /**
+   * Assign null, the default one.
+   */
+  NULL,
+
+  /**
+   * Assign the nearest ancestor of the same type, which creates a reference cycle.
+   */
+  REUSE_ANCESTOR,
+
+  /**
+   * Generate a new object, the graph grows until max depth is reached.
+   */
+  EXPAND
+}
@@ -0,0 +1,98 @@
+package org.luncert.objectmocker.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.luncert.objectmocker.exception.GeneratorException;
+
+/**
+ * DerivedObjectGenerator, a registered ObjectGenerator extended once by an
+ * {@link ObjectGeneratorExtender}. The extension is reused until the registered generator
+ * is modified, so generating costs the same as with a registered generator.
+ * Created by {@link ObjectMockContext#derive(Class, ObjectGeneratorExtender)}.
+ * @author Luncert
+ * @param <T> target type for generation.
+ */
+public final class DerivedObjectGenerator<T> {
+
+  private final RealObjectMockContext context;
+  private final Class<T> targetType;
+  private final ObjectGeneratorExtender extender;
+  private volatile Derivation derivation;
+
+  /**
+   * Derivation, extended generator with the basic generator it was extended from.
+   */
+  private static final class Derivation {
+
+    private final ObjectGenerator basicGenerator;
+    private final ObjectGenerator.Config basicConfig;
+    private final ObjectGenerator generator;
+
+    private Derivation(ObjectGenerator basicGenerator, ObjectGenerator.Config basicConfig,
+                       ObjectGenerator generator) {
+      this.basicGenerator = basicGenerator;
+      this.basicConfig = basicConfig;
+      this.generator = generator;
+    }
+
+    private boolean isValid(ObjectGenerator basicGenerator) {
+      // configs are immutable, any modification replaces them
+      return this.basicGenerator == basicGenerator
+          && basicConfig == basicGenerator.getConfig();
+    }
+  }
+
+  DerivedObjectGenerator(RealObjectMockContext context, Class<T> targetType,
+                         ObjectGeneratorExtender extender) {
+    this.context = context;
+    this.targetType = targetType;
+    this.extender = extender;
+    getGenerator();
+  }
+
+  private ObjectGenerator getGenerator() {
+    ObjectGenerator basicGenerator = context.getObjectGenerator(targetType);
+    Derivation current = derivation;
+    // modifyObjectGenerator replaces registered generator, modifying in place replaces config
+    if (current == null || !current.isValid(basicGenerator)) {
+      // read config before extending, a concurrent modification will be seen next time
+      ObjectGenerator.Config basicConfig = basicGenerator.getConfig();
+      ObjectGenerator generator;
+      try {
+        generator = extender.extendObjectGenerator(basicGenerator);
+      } catch (Exception e) {
+        throw new GeneratorException(e);
+      }
+      current = new Derivation(basicGenerator, basicConfig, generator);
+      derivation = current;
+    }
+    return current.generator;
+  }
+
+  public Class<T> getTargetType() {
+    return targetType;
+  }
+
+  /**
+   * Generate an object with extended generator.
+   * @param tmpIgnores ignore specified fields
+   * @return generated object
+   */
+  public T generate(String... tmpIgnores) {
+    return targetType.cast(getGenerator().generate(context, tmpIgnores));
+  }
+
+  /**
+   * Generate objects with extended generator.
+   * @param n number of objects
+   * @param tmpIgnores ignore specified fields
+   * @return list of generated objects
+   */
+  public List<T> generateMany(int n, String... tmpIgnores) {
+    RealObjectMockContext.checkCount(n);
+    return RealObjectMockContext.fill(targetType, n,
+        context.indexed(targetType, getGenerator().bind(context, tmpIgnores)),
+        new ArrayList<>(n));
+  }
+}
@@ -0,0 +1,17 @@
+package org.luncert.objectmocker.core;
+
+/**
+ * Generator of primitive double values. ObjectGenerator writes fields of type double
+ * with it directly, so values are never boxed.
+ * @author Luncert
+ */
+@FunctionalInterface
+public interface DoubleValueGenerator {
+
+  /**
+   * Generate a double value.
+   * @param context ObjectMockContext which is generating, may be null
+   * @return double value
+   */
+  double nextDouble(ObjectMockContext context);
+}
@@ -0,0 +1,294 @@
+package org.luncert.objectmocker.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+import org.luncert.objectmocker.exception.GeneratorException;
+
+/**
+ * FieldAccessor, writes values into one field of target object.
+ * The setter is resolved once into a {@link MethodHandle}, fields of primitive type
+ * get a primitive typed handle, so callers holding a primitive value don't need to box it.
+ * Reading is only needed to recycle field values, so the getter is resolved on first read.
+ * @author Luncert
+ */
+abstract class FieldAccessor {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private final Field field;
+
+  private volatile MethodHandle getter;
+
+  FieldAccessor(Field field) {
+    this.field = field;
+  }
+
+  /**
+   * Read value of field from target object, primitive value will be boxed.
+   * @param target target object
+   * @return field value
+   */
+  Object get(Object target) {
+    MethodHandle handle = getter;
+    if (handle == null) {
+      // racy but idempotent, every thread resolves an equivalent handle
+      handle = resolveGetter();
+      getter = handle;
+    }
+    try {
+      return (Object) handle.invokeExact(target);
+    } catch (Throwable e) {
+      throw new GeneratorException(e, "Failed to read field %s of instance of class %s.",
+          field.getName(), field.getDeclaringClass().getSimpleName());
+    }
+  }
+
+  private MethodHandle resolveGetter() {
+    field.setAccessible(true);
+    try {
+      return LOOKUP.unreflectGetter(field)
+          .asType(MethodType.methodType(Object.class, Object.class));
+    } catch (IllegalAccessException e) {
+      throw new GeneratorException(e, "Failed to resolve getter of field %s for class %s.",
+          field.getName(), field.getDeclaringClass().getSimpleName());
+    }
+  }
+
+  /**
+   * Write value into field of target object, primitive value will be unboxed and widened
+   * like {@link Field#set(Object, Object)} does.
+   * @param target target object
+   * @param value field value
+   */
+  abstract void set(Object target, Object value);
+
+  void setInt(Object target, int value) {
+    throw unsupported("int");
+  }
+
+  void setLong(Object target, long value) {
+    throw unsupported("long");
+  }
+
+  void setDouble(Object target, double value) {
+    throw unsupported("double");
+  }
+
+  void setBoolean(Object target, boolean value) {
+    throw unsupported("boolean");
+  }
+
+  private GeneratorException unsupported(String type) {
+    return new GeneratorException("Couldn't write %s value into field %s of type %s.",
+        type, field.getName(), field.getType().getName());
+  }
+
+  /**
+   * Unbox value for int field, byte, short and char values are widened.
+   */
+  int toInt(Object value) {
+    if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).intValue();
+    } else if (value instanceof Character) {
+      return (Character) value;
+    }
+    throw mismatch(value);
+  }
+
+  /**
+   * Unbox value for long field, int, byte, short and char values are widened.
+   */
+  long toLong(Object value) {
+    if (value instanceof Long || value instanceof Integer
+        || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).longValue();
+    } else if (value instanceof Character) {
+      return (Character) value;
+    }
+    throw mismatch(value);
+  }
+
+  /**
+   * Unbox value for double field, values of all other primitive numeric types are widened.
+   */
+  double toDouble(Object value) {
+    if (value instanceof Double || value instanceof Float || value instanceof Long
+        || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).doubleValue();
+    } else if (value instanceof Character) {
+      return (Character) value;
+    }
+    throw mismatch(value);
+  }
+
+  boolean toBoolean(Object value) {
+    if (value instanceof Boolean) {
+      return (Boolean) value;
+    }
+    throw mismatch(value);
+  }
+
+  private GeneratorException mismatch(Object value) {
+    return failure(new IllegalArgumentException(value == null
+        ? "Can not set " + field.getType().getName() + " field to null value"
+        : "Can not set " + field.getType().getName() + " field to "
+            + value.getClass().getName()));
+  }
+
+  GeneratorException failure(Throwable cause) {
+    return new GeneratorException(cause,
+        "Failed to set generated field value %s for instance of class %s.",
+        field.getName(), field.getDeclaringClass().getSimpleName());
+  }
+
+  /**
+   * Resolve FieldAccessor for specified field.
+   * @param field target field, must not be final
+   * @return FieldAccessor
+   */
+  static FieldAccessor of(Field field) {
+    field.setAccessible(true);
+    MethodHandle setter;
+    try {
+      setter = LOOKUP.unreflectSetter(field);
+    } catch (IllegalAccessException e) {
+      throw new GeneratorException(e, "Failed to resolve setter of field %s for class %s.",
+          field.getName(), field.getDeclaringClass().getSimpleName());
+    }
+
+    Class<?> fieldType = field.getType();
+    if (int.class.equals(fieldType)) {
+      return new IntFieldAccessor(field, setter.asType(
+          MethodType.methodType(void.class, Object.class, int.class)));
+    } else if (long.class.equals(fieldType)) {
+      return new LongFieldAccessor(field, setter.asType(
+          MethodType.methodType(void.class, Object.class, long.class)));
+    } else if (double.class.equals(fieldType)) {
+      return new DoubleFieldAccessor(field, setter.asType(
+          MethodType.methodType(void.class, Object.class, double.class)));
+    } else if (boolean.class.equals(fieldType)) {
+      return new BooleanFieldAccessor(field, setter.asType(
+          MethodType.methodType(void.class, Object.class, boolean.class)));
+    }
+    return new ObjectFieldAccessor(field, setter.asType(
+        MethodType.methodType(void.class, Object.class, Object.class)));
+  }
+
+  private static final class ObjectFieldAccessor extends FieldAccessor {
+
+    private final MethodHandle setter;
+
+    ObjectFieldAccessor(Field field, MethodHandle setter) {
+      super(field);
+      this.setter = setter;
+    }
+
+    @Override
+    void set(Object target, Object value) {
+      try {
+        setter.invokeExact(target, value);
+      } catch (Throwable e) {
+        throw failure(e);
+      }
+    }
+  }
+
+  private static final class IntFieldAccessor extends FieldAccessor {
+
+    private final MethodHandle setter;
+
+    IntFieldAccessor(Field field, MethodHandle setter) {
+      super(field);
+      this.setter = setter;
+    }
+
+    @Override
+    void set(Object target, Object value) {
+      setInt(target, toInt(value));
+    }
+
+    @Override
+    void setInt(Object target, int value) {
+      try {
+        setter.invokeExact(target, value);
+      } catch (Throwable e) {
+        throw failure(e);
+      }
+    }
+  }
+
+  private static final class LongFieldAccessor extends FieldAccessor {
+
+    private final MethodHandle setter;
+
+    LongFieldAccessor(Field field, MethodHandle setter) {
+      super(field);
+      this.setter = setter;
+    }
+
+    @Override
+    void set(Object target, Object value) {
+      setLong(target, toLong(value));
+    }
+
+    @Override
+    void setLong(Object target, long value) {
+      try {
+        setter.invokeExact(target, value);
+      } catch (Throwable e) {
+        throw failure(e);
+      }
+    }
+  }
+
+  private static final class DoubleFieldAccessor extends FieldAccessor {
+
+    private final MethodHandle setter;
+
+    DoubleFieldAccessor(Field field, MethodHandle setter) {
+      super(field);
+      this.setter = setter;
+    }
+
+    @Override
+    void set(Object target, Object value) {
+      setDouble(target, toDouble(value));
+    }
+
+    @Override
+    void setDouble(Object target, double value) {
+      try {
+        setter.invokeExact(target, value);
+      } catch (Throwable e) {
+        throw failure(e);
+      }
+    }
+  }
+
+  private static final class BooleanFieldAccessor extends FieldAccessor {
+
+    private final MethodHandle setter;
+
+    BooleanFieldAccessor(Field field, MethodHandle setter) {
+      super(field);
+      this.setter = setter;
+    }
+
+    @Override
+    void set(Object target, Object value) {
+      setBoolean(target, toBoolean(value));
+    }
+
+    @Override
+    void setBoolean(Object target, boolean value) {
+      try {
+        setter.invokeExact(target, value);
+      } catch (Throwable e) {
+        throw failure(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package org.luncert.objectmocker.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+
+import org.luncert.objectmocker.exception.GeneratorException;
+
+/**
+ * FieldCopier, copies writable fields from one object to another object of the same class.
+ * Getters and setters of all fields are folded into one {@link MethodHandle} when the copier
+ * is created, so copying involves no reflection and primitive values are never boxed.
+ * @author Luncert
+ */
+final class FieldCopier {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private static final MethodType COPY_TYPE =
+      MethodType.methodType(void.class, Object.class, Object.class);
+
+  private final Class<?> type;
+
+  // (Object source, Object target)void
+  private final MethodHandle copier;
+
+  private FieldCopier(Class<?> type, MethodHandle copier) {
+    this.type = type;
+    this.copier = copier;
+  }
+
+  /**
+   * Compile FieldCopier for all non-static, non-final fields of type and its super classes.
+   * @param type class of copied objects
+   * @param excludes names of fields not to be copied
+   * @return FieldCopier
+   */
+  static FieldCopier of(Class<?> type, Set<String> excludes) {
+    MethodHandle copier;
+    try {
+      copier = MethodHandles.dropArguments(
+          LOOKUP.findStatic(FieldCopier.class, "noCopy", MethodType.methodType(void.class)),
+          0, Object.class, Object.class);
+      for (Class<?> c = type; !Object.class.equals(c); c = c.getSuperclass()) {
+        for (Field field : c.getDeclaredFields()) {
+          int modifiers = field.getModifiers();
+          if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()
+              || excludes.contains(field.getName())) {
+            continue;
+          }
+          copier = MethodHandles.foldArguments(copyField(field), copier);
+        }
+      }
+    } catch (ReflectiveOperationException e) {
+      throw new GeneratorException(e, "Failed to compile field copier for class %s.",
+          type.getSimpleName());
+    }
+    return new FieldCopier(type, copier);
+  }
+
+  private static MethodHandle copyField(Field field) throws IllegalAccessException {
+    field.setAccessible(true);
+    Class<?> fieldType = field.getType();
+    MethodHandle getter = LOOKUP.unreflectGetter(field)
+        .asType(MethodType.methodType(fieldType, Object.class));
+    MethodHandle setter = LOOKUP.unreflectSetter(field)
+        .asType(MethodType.methodType(void.class, Object.class, fieldType));
+    // (target, source) -> target.field = source.field, then swap parameters
+    return MethodHandles.permuteArguments(
+        MethodHandles.filterArguments(setter, 1, getter), COPY_TYPE, 1, 0);
+  }
+
+  private static void noCopy() {
+  }
+
+  /**
+   * Copy fields of source into target.
+   * @param source source object
+   * @param target target object
+   */
+  void copy(Object source, Object target) {
+    try {
+      copier.invokeExact(source, target);
+    } catch (Throwable e) {
+      throw new GeneratorException(e, "Failed to copy fields of class %s.",
+          type.getSimpleName());
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package org.luncert.objectmocker.core;
+
+import java.lang.reflect.Field;
+
+/**
+ * FieldSlot, one writable field of target type with its pre-selected value supplier.
+ * @author Luncert
+ */
+final class FieldSlot {
+
+  private final Field field;
+  // position in all writable fields of target type
+  private final int index;
+  private final FieldAccessor accessor;
+  private final String name;
+  private final boolean ignored;
+
+  // supplier selected when the plan was compiled, invoked with valueType
+  private final ObjectSupplier<?> supplier;
+  private final Class<?> valueType;
+
+  // generates and writes field value, primitive fields may be written without boxing
+  private final FieldWriter writer;
+
+  // overwrites current field value in place if possible, null if value is never recycled
+  private final FieldWriter recycler;
+
+  /**
+   * FieldWriter, generates a value and writes it into the field of target object.
+   */
+  @FunctionalInterface
+  interface FieldWriter {
+
+    void write(Object target, ObjectMockContext context);
+  }
+
+  FieldSlot(Field field, int index, FieldAccessor accessor, boolean ignored,
+            ObjectSupplier<?> supplier, Class<?> valueType) {
+    this(field, index, accessor, ignored, supplier, valueType,
+        (target, context) -> accessor.set(target, supplier.getObject(context, valueType)));
+  }
+
+  FieldSlot(Field field, int index, FieldAccessor accessor, boolean ignored,
+            ObjectSupplier<?> supplier, Class<?> valueType, FieldWriter writer) {
+    this(field, index, accessor, ignored, supplier, valueType, writer, null);
+  }
+
+  FieldSlot(Field field, int index, FieldAccessor accessor, boolean ignored,
+            ObjectSupplier<?> supplier, Class<?> valueType, FieldWriter writer,
+            FieldWriter recycler) {
+    this.field = field;
+    this.index = index;
+    this.accessor = accessor;
+    this.name = field.getName();
+    this.ignored = ignored;
+    this.supplier = supplier;
+    this.valueType = valueType;
+    this.writer = writer;
+    this.recycler = recycler;
+  }
+
+  Field getField() {
+    return field;
+  }
+
+  int getIndex() {
+    return index;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  boolean isIgnored() {
+    return ignored;
+  }
+
+  /**
+   * Generate a value for this field.
+   * @param context ObjectMockContext used to generate nested objects
+   * @return generated value
+   */
+  Object generate(ObjectMockContext context) {
+    return supplier.getObject(context, valueType);
+  }
+
+  /**
+   * Generate a value and write it into this field of target object.
+   * @param target target object
+   * @param context ObjectMockContext used to generate nested objects
+   */
+  void generateInto(Object target, ObjectMockContext context) {
+    writer.write(target, context);
+  }
+
+  /**
+   * Generate a value for this field of a recycled target object, nested objects and
+   * containers currently held by the field are reused if their shape matches.
+   * @param target recycled target object
+   * @param context ObjectMockContext used to generate nested objects
+   */
+  void refillInto(Object target, ObjectMockContext context) {
+    (recycler != null ? recycler : writer).write(target, context);
+  }
+
+  /**
+   * Write value into this field of target object.
+   * @param target target object
+   * @param value field value
+   */
+  void set(Object target, Object value) {
+    accessor.set(target, value);
+  }
+}
@@ -0,0 +1,43 @@
+package org.luncert.objectmocker.core;
+
+/**
+ * Generator emitted at compile time by objectmocker-processor for classes annotated with
+ * {@link org.luncert.objectmocker.annotation.Mockable}. It creates target instance and assigns
+ * fields directly, without any reflection.
+ * Implementations are discovered with {@link java.util.ServiceLoader}, RealObjectMockContext
+ * prefers them to the registered ObjectGenerator unless it has ignores or field generators.
+ * @author Luncert
+ * @param <T> target type for generation.
+ */
+public interface GeneratedObjectGenerator<T> {
+
+  /**
+   * Get target class.
+   * @return target class
+   */
+  Class<T> getTargetType();
+
+  /**
+   * Create a new instance without generating its fields.
+   * @return target object
+   */
+  T newInstance();
+
+  /**
+   * Generate all fields value for target object.
+   * @param context ObjectMockContext used to generate builtin types and nested objects
+   * @param target object created by {@link #newInstance()}
+   */
+  void fill(ObjectMockContext context, T target);
+
+  /**
+   * Create a new instance and generate all fields value for it.
+   * @param context ObjectMockContext used to generate builtin types and nested objects
+   * @return target object
+   */
+  default T generate(ObjectMockContext context) {
+    T target = newInstance();
+    fill(context, target);
+    return target;
+  }
+}
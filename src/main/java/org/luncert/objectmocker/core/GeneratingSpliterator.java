@@ -0,0 +1,88 @@
+package org.luncert.objectmocker.core;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * GeneratingSpliterator, lazily generates objects of index range [index, fence),
+ * the index is passed to supplier so that seeded context could derive randomness from it.
+ * Splitting halves the range, so parallel streams get balanced chunks without
+ * buffering any generated object.
+ * @author Luncert
+ * @param <T> target type for generation.
+ */
+final class GeneratingSpliterator<T> implements Spliterator<T> {
+
+  private static final int SIZED_CHARACTERISTICS =
+      ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+  private static final int INFINITE_CHARACTERISTICS = NONNULL | IMMUTABLE;
+
+  private final Class<T> clazz;
+  private final LongFunction<Object> supplier;
+  private final int characteristics;
+  private long index;
+  private final long fence;
+
+  private GeneratingSpliterator(Class<T> clazz, LongFunction<Object> supplier,
+                                int characteristics, long index, long fence) {
+    this.clazz = clazz;
+    this.supplier = supplier;
+    this.characteristics = characteristics;
+    this.index = index;
+    this.fence = fence;
+  }
+
+  static <T> GeneratingSpliterator<T> sized(Class<T> clazz, LongFunction<Object> supplier,
+                                            long size) {
+    RealObjectMockContext.checkCount(size);
+    return new GeneratingSpliterator<>(clazz, supplier, SIZED_CHARACTERISTICS, 0, size);
+  }
+
+  static <T> GeneratingSpliterator<T> infinite(Class<T> clazz, LongFunction<Object> supplier) {
+    return new GeneratingSpliterator<>(clazz, supplier, INFINITE_CHARACTERISTICS,
+        0, Long.MAX_VALUE);
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    if (index >= fence) {
+      return false;
+    }
+    long i = index++;
+    action.accept(clazz.cast(supplier.apply(i)));
+    return true;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super T> action) {
+    long i = index;
+    long end = fence;
+    // write back before generating, so a failed action won't be retried
+    index = end;
+    for (; i < end; i++) {
+      action.accept(clazz.cast(supplier.apply(i)));
+    }
+  }
+
+  @Override
+  public Spliterator<T> trySplit() {
+    long lo = index;
+    long mid = (lo + fence) >>> 1;
+    if (lo >= mid) {
+      return null;
+    }
+    index = mid;
+    return new GeneratingSpliterator<>(clazz, supplier, characteristics, lo, mid);
+  }
+
+  @Override
+  public long estimateSize() {
+    return fence - index;
+  }
+
+  @Override
+  public int characteristics() {
+    return characteristics;
+  }
+}
@@ -0,0 +1,184 @@
+package org.luncert.objectmocker.core;
+
+import static org.luncert.objectmocker.core.RealObjectMockContext.BUILTIN_GENERATORS;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * GenerationPlan, the resolved field layout of an {@link ObjectGenerator}.
+ * It is compiled once and reused until the owning ObjectGenerator is modified,
+ * so generating an object is only a loop over pre-resolved field slots.
+ * @author Luncert
+ */
+@Slf4j
+final class GenerationPlan {
+
+  private static final FieldSlot[] EMPTY_SLOTS = new FieldSlot[0];
+
+  private final Class<?> targetType;
+
+  private final Instantiator instantiator;
+
+  // all writable fields of target type, including ignored ones
+  private final FieldSlot[] slots;
+
+  // writable fields that are not ignored by the ObjectGenerator
+  private final FieldSlot[] activeSlots;
+
+  private GenerationPlan(Class<?> targetType, Instantiator instantiator, FieldSlot[] slots,
+                         FieldSlot[] activeSlots) {
+    this.targetType = targetType;
+    this.instantiator = instantiator;
+    this.slots = slots;
+    this.activeSlots = activeSlots;
+  }
+
+  /**
+   * Create a new instance of target type.
+   * @return new instance
+   */
+  Object newInstance() {
+    return instantiator.newInstance();
+  }
+
+  Class<?> getTargetType() {
+    return targetType;
+  }
+
+  FieldSlot[] getSlots() {
+    return slots;
+  }
+
+  FieldSlot[] getActiveSlots() {
+    return activeSlots;
+  }
+
+  /**
+   * Scan target type, including its super classes, and select
+   * a value supplier for each writable field.
+   * @param targetType target type of ObjectGenerator
+   * @param compiled whether to bind constructor with LambdaMetafactory
+   * @param ignores ignored fields
+   * @param fieldGenerators customized field generators
+   * @return GenerationPlan
+   */
+  static GenerationPlan compile(Class<?> targetType, boolean compiled, Set<String> ignores,
+                                Map<Field, AbstractGenerator> fieldGenerators) {
+    String className = targetType.getSimpleName();
+
+    List<FieldSlot> slots = new ArrayList<>();
+    List<FieldSlot> activeSlots = new ArrayList<>();
+    // type arguments of generic super classes, resolving type variables of inherited fields
+    Map<TypeVariable<?>, Type> bindings = ValueSuppliers.bindings(targetType);
+
+    Class<?> objectClass = targetType;
+    // loop to scan all fields of target type, including its super classes.
+    while (!Object.class.equals(objectClass)) {
+      for (Field field : objectClass.getDeclaredFields()) {
+        // skip static, final or jvm-generated fields
+        int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()) {
+          log.debug("{}.{} - Field has been skipped because it is static, final,"
+              + " or generated by compiler.", className, field.getName());
+          continue;
+        }
+
+        FieldSlot slot = compileSlot(field, slots.size(), FieldAccessor.of(field), bindings,
+            ignores.contains(field.getName()), fieldGenerators.get(field));
+        slots.add(slot);
+        if (!slot.isIgnored()) {
+          activeSlots.add(slot);
+        }
+      }
+
+      // turn to parent class
+      objectClass = objectClass.getSuperclass();
+    }
+
+    Instantiator instantiator = compiled ? LambdaAccessors.instantiator(targetType) : null;
+    if (instantiator == null) {
+      instantiator = Instantiator.of(targetType);
+    }
+    return new GenerationPlan(targetType, instantiator,
+        slots.toArray(EMPTY_SLOTS), activeSlots.toArray(EMPTY_SLOTS));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static FieldSlot compileSlot(Field field, int index, FieldAccessor accessor,
+                                       Map<TypeVariable<?>, Type> bindings,
+                                       boolean ignored, AbstractGenerator generator) {
+    Type fieldType = ValueSuppliers.resolve(field.getGenericType(), bindings);
+    Class<?> fieldClass = ValueSuppliers.erase(fieldType);
+    if (generator != null) {
+      // generate field value using fieldGenerator
+      Class<?> elemType = fieldClass;
+      // if field is a list or an array, we should forward its element type to the generator
+      if (List.class.equals(elemType) && fieldType instanceof ParameterizedType) {
+        Type elemArg = ((ParameterizedType) fieldType).getActualTypeArguments()[0];
+        elemType = ValueSuppliers.erase(ValueSuppliers.resolve(elemArg, bindings));
+      } else if (elemType.isArray()) {
+        elemType = elemType.getComponentType();
+      }
+      return generatorSlot(field, index, accessor, ignored, generator, elemType);
+    }
+
+    AbstractGenerator builtinGenerator = BUILTIN_GENERATORS.get(fieldClass);
+    if (builtinGenerator != null) {
+      // generate field value using built-in generator
+      return generatorSlot(field, index, accessor, ignored, builtinGenerator, fieldClass);
+    }
+    // enums, arrays, containers with their resolved type arguments, or delegate to context
+    ObjectSupplier<Object> supplier = ValueSuppliers.compile(fieldType, bindings);
+    ValueSuppliers.ValueRecycler recycler = ValueSuppliers.recycler(fieldType, bindings);
+    if (recycler == null) {
+      return new FieldSlot(field, index, accessor, ignored, supplier, fieldClass);
+    }
+    return new FieldSlot(field, index, accessor, ignored, supplier, fieldClass,
+        (target, ctx) -> accessor.set(target, supplier.getObject(ctx, fieldClass)),
+        (target, ctx) -> accessor.set(target, recycler.recycle(ctx, accessor.get(target))));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static FieldSlot generatorSlot(Field field, int index, FieldAccessor accessor,
+                                         boolean ignored, AbstractGenerator generator,
+                                         Class<?> valueType) {
+    ObjectSupplier<?> supplier = (ctx, clazz) -> generator.generate(ctx, clazz);
+    FieldSlot.FieldWriter writer = primitiveWriter(field.getType(), accessor, generator);
+    return writer != null
+        ? new FieldSlot(field, index, accessor, ignored, supplier, valueType, writer)
+        : new FieldSlot(field, index, accessor, ignored, supplier, valueType);
+  }
+
+  /**
+   * Select a writer passing primitive value from generator to field directly.
+   * @return FieldWriter, or null if generator doesn't generate primitive value of field type
+   */
+  private static FieldSlot.FieldWriter primitiveWriter(Class<?> fieldType,
+                                                       FieldAccessor accessor,
+                                                       AbstractGenerator generator) {
+    if (int.class.equals(fieldType) && generator instanceof IntValueGenerator) {
+      IntValueGenerator intGenerator = (IntValueGenerator) generator;
+      return (target, ctx) -> accessor.setInt(target, intGenerator.nextInt(ctx));
+    } else if (long.class.equals(fieldType) && generator instanceof LongValueGenerator) {
+      LongValueGenerator longGenerator = (LongValueGenerator) generator;
+      return (target, ctx) -> accessor.setLong(target, longGenerator.nextLong(ctx));
+    } else if (double.class.equals(fieldType) && generator instanceof DoubleValueGenerator) {
+      DoubleValueGenerator doubleGenerator = (DoubleValueGenerator) generator;
+      return (target, ctx) -> accessor.setDouble(target, doubleGenerator.nextDouble(ctx));
+    } else if (boolean.class.equals(fieldType) && generator instanceof BooleanValueGenerator) {
+      BooleanValueGenerator booleanGenerator = (BooleanValueGenerator) generator;
+      return (target, ctx) -> accessor.setBoolean(target, booleanGenerator.nextBoolean(ctx));
+    }
+    return null;
+  }
+}
@@ -0,0 +1,162 @@
+package org.luncert.objectmocker.core;
+
+import java.util.Arrays;
+
+/**
+ * GeneratorRegistry, immutable mapping from target class to registered ObjectGenerator.
+ * It is a persistent hash trie, adding a generator copies only the path to its entry, so that
+ * copied contexts share everything they haven't modified and lookups take a few probes.
+ * Each entry pins the configuration its generator had when the entry was written, a context
+ * reading an entry whose generator has been modified in place since, by another context owning
+ * it, knows it must not share the modification.
+ * @author Luncert
+ */
+final class GeneratorRegistry {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  private static final Node EMPTY_NODE = new Node(0, new Object[0]);
+
+  static final GeneratorRegistry EMPTY = new GeneratorRegistry(EMPTY_NODE);
+
+  private final Node root;
+
+  /**
+   * Entry, a registered generator and the configuration pinned for it.
+   */
+  static final class Entry {
+
+    private final Class<?> type;
+    private final ObjectGenerator generator;
+    private final ObjectGenerator.Config config;
+
+    private Entry(Class<?> type, ObjectGenerator generator) {
+      this.type = type;
+      this.generator = generator;
+      this.config = generator.getConfig();
+    }
+
+    ObjectGenerator getGenerator() {
+      return generator;
+    }
+
+    ObjectGenerator.Config getConfig() {
+      return config;
+    }
+
+    /**
+     * Whether generator hasn't been modified in place since this entry was written.
+     */
+    boolean isCurrent() {
+      return generator.getConfig() == config;
+    }
+  }
+
+  /**
+   * Node of trie, slots are entries or child nodes indexed by bitmap. Below the last level
+   * of hash bits, a node holds all entries of colliding hash and its bitmap is unused.
+   */
+  private static final class Node {
+
+    private final int bitmap;
+    private final Object[] slots;
+
+    private Node(int bitmap, Object[] slots) {
+      this.bitmap = bitmap;
+      this.slots = slots;
+    }
+  }
+
+  private GeneratorRegistry(Node root) {
+    this.root = root;
+  }
+
+  /**
+   * Find entry of target class.
+   * @param clazz target class
+   * @return Entry, or null if no generator is registered for it
+   */
+  Entry get(Class<?> clazz) {
+    int hash = hash(clazz);
+    Node node = root;
+    for (int shift = 0; shift < Integer.SIZE; shift += BITS) {
+      int bit = 1 << ((hash >>> shift) & MASK);
+      if ((node.bitmap & bit) == 0) {
+        return null;
+      }
+      Object slot = node.slots[Integer.bitCount(node.bitmap & (bit - 1))];
+      if (slot instanceof Entry) {
+        Entry entry = (Entry) slot;
+        return entry.type == clazz ? entry : null;
+      }
+      node = (Node) slot;
+    }
+    for (Object slot : node.slots) {
+      if (((Entry) slot).type == clazz) {
+        return (Entry) slot;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Create a registry with specified generator added or replaced, pinning its current
+   * configuration, this one is not changed.
+   * @param clazz target class
+   * @param generator ObjectGenerator
+   * @return new registry
+   */
+  GeneratorRegistry with(Class<?> clazz, ObjectGenerator generator) {
+    return new GeneratorRegistry(put(root, 0, new Entry(clazz, generator), hash(clazz)));
+  }
+
+  private static Node put(Node node, int shift, Entry entry, int hash) {
+    Object[] slots = node.slots;
+    if (shift >= Integer.SIZE) {
+      for (int i = 0; i < slots.length; i++) {
+        if (((Entry) slots[i]).type == entry.type) {
+          return new Node(0, replace(slots, i, entry));
+        }
+      }
+      Object[] grown = Arrays.copyOf(slots, slots.length + 1);
+      grown[slots.length] = entry;
+      return new Node(0, grown);
+    }
+
+    int bit = 1 << ((hash >>> shift) & MASK);
+    int index = Integer.bitCount(node.bitmap & (bit - 1));
+    if ((node.bitmap & bit) == 0) {
+      Object[] grown = new Object[slots.length + 1];
+      System.arraycopy(slots, 0, grown, 0, index);
+      grown[index] = entry;
+      System.arraycopy(slots, index, grown, index + 1, slots.length - index);
+      return new Node(node.bitmap | bit, grown);
+    }
+
+    Object slot = slots[index];
+    Object replacement;
+    if (slot instanceof Node) {
+      replacement = put((Node) slot, shift + BITS, entry, hash);
+    } else if (((Entry) slot).type == entry.type) {
+      replacement = entry;
+    } else {
+      // push both entries one level down
+      Entry existing = (Entry) slot;
+      Node child = put(EMPTY_NODE, shift + BITS, existing, hash(existing.type));
+      replacement = put(child, shift + BITS, entry, hash);
+    }
+    return new Node(node.bitmap, replace(slots, index, replacement));
+  }
+
+  private static Object[] replace(Object[] slots, int index, Object slot) {
+    Object[] copy = slots.clone();
+    copy[index] = slot;
+    return copy;
+  }
+
+  private static int hash(Class<?> clazz) {
+    int h = clazz.hashCode();
+    return h ^ (h >>> 16);
+  }
+}
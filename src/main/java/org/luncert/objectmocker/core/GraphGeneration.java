@@ -0,0 +1,294 @@
+package org.luncert.objectmocker.core;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.luncert.objectmocker.exception.GeneratorException;
+
+/**
+ * GraphGeneration, generates the object graph of one root object on an explicit stack.
+ * A nested object requested by a field supplier is created at once but filled after its
+ * parent, so the depth of the graph doesn't grow the Java stack. Objects requested in other
+ * ways, e.g. by customized generators, are filled before returning, as they may be read.
+ * Every nested object is checked against {@link GraphLimits} of the context.
+ * A recycled object is refilled the same way, reusing the nested objects it already holds.
+ * @author Luncert
+ */
+final class GraphGeneration {
+
+  private static final ThreadLocal<GraphGeneration> CURRENT = new ThreadLocal<>();
+
+  // returned by admit if the object should be created
+  private static final Object ADMITTED = new Object();
+
+  private final GraphLimits limits;
+
+  // created objects waiting to be filled
+  private final Deque<Frame> pending = new ArrayDeque<>();
+
+  // object being filled, objects created now are its children
+  private Frame current;
+
+  private long objects;
+
+  // set while a field supplier asks context for a nested object, which could be filled later
+  private boolean deferNext;
+
+  /**
+   * Frame, one object of the graph and how to fill it.
+   */
+  private static final class Frame {
+
+    private final Frame parent;
+    private final Class<?> type;
+    private final int depth;
+    private final Object target;
+    private final ObjectMockContext context;
+    // null if object is filled by GeneratedObjectGenerator
+    private final GenerationPlan plan;
+    private final IgnoreProfile profile;
+    // whether target is a recycled object whose fields hold previously generated values
+    private final boolean recycled;
+    // null if object is filled with GenerationPlan
+    private final GeneratedObjectGenerator<Object> generated;
+
+    private Frame(Frame parent, Class<?> type, Object target, ObjectMockContext context,
+                  GenerationPlan plan, IgnoreProfile profile, boolean recycled,
+                  GeneratedObjectGenerator<Object> generated) {
+      this.parent = parent;
+      this.type = type;
+      this.depth = parent == null ? 0 : parent.depth + 1;
+      this.target = target;
+      this.context = context;
+      this.plan = plan;
+      this.profile = profile;
+      this.recycled = recycled;
+      this.generated = generated;
+    }
+  }
+
+  private GraphGeneration(GraphLimits limits) {
+    this.limits = limits;
+  }
+
+  /**
+   * Generate object with GenerationPlan, as a new root or as a nested object of current graph.
+   * @param context ObjectMockContext generating nested objects
+   * @param plan GenerationPlan of target type
+   * @param profile fields to be ignored temporarily
+   * @return target object, or null / ancestor if limited by GraphLimits
+   */
+  static Object generate(ObjectMockContext context, GenerationPlan plan, IgnoreProfile profile) {
+    return generate(context, plan, profile, null);
+  }
+
+  /**
+   * Overwrite fields of a previously generated object with GenerationPlan, as a new root or
+   * as a nested object of current graph. Fields ignored by profile keep their values.
+   * @param context ObjectMockContext generating nested objects
+   * @param plan GenerationPlan of target type
+   * @param profile fields to be ignored temporarily
+   * @param target object to be refilled
+   * @return target object, or null / ancestor if limited by GraphLimits
+   */
+  static Object refill(ObjectMockContext context, GenerationPlan plan, IgnoreProfile profile,
+                       Object target) {
+    return generate(context, plan, profile, target);
+  }
+
+  private static Object generate(ObjectMockContext context, GenerationPlan plan,
+                                 IgnoreProfile profile, Object recycled) {
+    GraphGeneration graph = CURRENT.get();
+    if (graph != null) {
+      boolean deferred = graph.deferNext;
+      graph.deferNext = false;
+      return graph.create(context, plan, profile, recycled, deferred);
+    }
+    graph = new GraphGeneration(limitsOf(context));
+    CURRENT.set(graph);
+    try {
+      return graph.create(context, plan, profile, recycled, false);
+    } finally {
+      CURRENT.remove();
+    }
+  }
+
+  /**
+   * Generate object with GeneratedObjectGenerator, as a new root or as a nested object of
+   * current graph. The object is created first and filled by the generator like objects
+   * generated with GenerationPlan.
+   * @param context ObjectMockContext generating nested objects
+   * @param type target type
+   * @param generated GeneratedObjectGenerator
+   * @return target object, or null / ancestor if limited by GraphLimits
+   */
+  @SuppressWarnings("unchecked")
+  static Object generate(ObjectMockContext context, Class<?> type,
+                         GeneratedObjectGenerator<?> generated) {
+    GeneratedObjectGenerator<Object> generator = (GeneratedObjectGenerator<Object>) generated;
+    GraphGeneration graph = CURRENT.get();
+    if (graph != null) {
+      boolean deferred = graph.deferNext;
+      graph.deferNext = false;
+      return graph.create(context, type, generator, deferred);
+    }
+    graph = new GraphGeneration(limitsOf(context));
+    CURRENT.set(graph);
+    try {
+      return graph.create(context, type, generator, false);
+    } finally {
+      CURRENT.remove();
+    }
+  }
+
+  /**
+   * Ask context for a nested object on behalf of a field supplier, the returned object
+   * may be filled after the field has been assigned.
+   * @param context ObjectMockContext
+   * @param clazz type of nested object
+   * @return nested object
+   */
+  static Object generateNested(ObjectMockContext context, Class<?> clazz) {
+    GraphGeneration graph = CURRENT.get();
+    if (graph == null) {
+      return context.generate(clazz);
+    }
+    graph.deferNext = true;
+    try {
+      return context.generate(clazz);
+    } finally {
+      graph.deferNext = false;
+    }
+  }
+
+  /**
+   * Get a value from supplier and fill the nested objects it requested before returning,
+   * for values hashed or compared right away, e.g. set elements and map keys.
+   * @param context ObjectMockContext
+   * @param supplier value supplier
+   * @return value with nested objects filled
+   */
+  static Object generateFilled(ObjectMockContext context, ObjectSupplier<Object> supplier) {
+    GraphGeneration graph = CURRENT.get();
+    if (graph == null) {
+      return supplier.getObject(context, null);
+    }
+    int mark = graph.pending.size();
+    Object value = supplier.getObject(context, null);
+    graph.drain(mark);
+    return value;
+  }
+
+  /**
+   * Ask context to refill a nested object on behalf of a field recycler, the returned object
+   * may be filled after the field has been assigned.
+   * @param context ObjectMockContext
+   * @param nested nested object currently held by the field
+   * @return nested object
+   */
+  static Object refillNested(ObjectMockContext context, Object nested) {
+    GraphGeneration graph = CURRENT.get();
+    if (graph == null) {
+      return context.refill(nested);
+    }
+    graph.deferNext = true;
+    try {
+      return context.refill(nested);
+    } finally {
+      graph.deferNext = false;
+    }
+  }
+
+  private Object create(ObjectMockContext context, GenerationPlan plan, IgnoreProfile profile,
+                        Object recycled, boolean deferred) {
+    Class<?> type = plan.getTargetType();
+    Object admission = admit(type);
+    if (admission != ADMITTED) {
+      return admission;
+    }
+    Object target = recycled != null ? recycled : plan.newInstance();
+    return push(new Frame(current, type, target, context, plan, profile, recycled != null, null),
+        deferred);
+  }
+
+  private Object create(ObjectMockContext context, Class<?> type,
+                        GeneratedObjectGenerator<Object> generated, boolean deferred) {
+    Object admission = admit(type);
+    if (admission != ADMITTED) {
+      return admission;
+    }
+    // target is known before filling, so descendants could reuse it as their ancestor
+    Object target = generated.newInstance();
+    return push(new Frame(current, type, target, context, null, null, false, generated),
+        deferred);
+  }
+
+  private Object push(Frame frame, boolean deferred) {
+    int mark = pending.size();
+    pending.push(frame);
+    if (!deferred) {
+      drain(mark);
+    }
+    return frame.target;
+  }
+
+  /**
+   * Check whether a new object of type could be created as a child of current object.
+   * @return ADMITTED, or the value to be assigned instead
+   */
+  private Object admit(Class<?> type) {
+    if (current != null) {
+      CyclePolicy cyclePolicy = limits.getCyclePolicy();
+      if (cyclePolicy != CyclePolicy.EXPAND) {
+        for (Frame ancestor = current; ancestor != null; ancestor = ancestor.parent) {
+          if (ancestor.type == type) {
+            return cyclePolicy == CyclePolicy.REUSE_ANCESTOR ? ancestor.target : null;
+          }
+        }
+      }
+      if (current.depth >= limits.getMaxDepth()) {
+        return null;
+      }
+    }
+    if (++objects > limits.getMaxObjects()) {
+      throw new GeneratorException("More than %d objects generated for one %s, "
+          + "check max depth and cycle policy.", limits.getMaxObjects(), type.getName());
+    }
+    return ADMITTED;
+  }
+
+  /**
+   * Fill pending objects until the stack shrinks to mark.
+   */
+  private void drain(int mark) {
+    Frame previous = current;
+    try {
+      while (pending.size() > mark) {
+        Frame frame = pending.pop();
+        current = frame;
+        if (frame.generated != null) {
+          frame.generated.fill(frame.context, frame.target);
+        } else if (frame.recycled) {
+          ObjectGenerator.refill(frame.context, frame.plan, frame.profile, frame.target);
+        } else {
+          ObjectGenerator.fill(frame.context, frame.plan, frame.profile, frame.target);
+        }
+      }
+    } finally {
+      current = previous;
+      // discard objects left by a failed generation
+      while (pending.size() > mark) {
+        pending.pop();
+      }
+    }
+  }
+
+  private static GraphLimits limitsOf(ObjectMockContext context) {
+    if (context instanceof RealObjectMockContext) {
+      return ((RealObjectMockContext) context).getGraphLimits();
+    } else if (context instanceof VirtualObjectMockContext) {
+      return ((VirtualObjectMockContext) context).getGraphLimits();
+    }
+    return GraphLimits.DEFAULT;
+  }
+}
@@ -0,0 +1,54 @@
+package org.luncert.objectmocker.core;
+
+import java.util.Objects;
+
+/**
+ * GraphLimits, bounds the object graph generated for one root object.
+ * @author Luncert
+ */
+final class GraphLimits {
+
+  static final GraphLimits DEFAULT = new GraphLimits(64, CyclePolicy.NULL, 1_000_000L);
+
+  // depth of root object is 0, nested objects deeper than it are assigned null
+  private final int maxDepth;
+  private final CyclePolicy cyclePolicy;
+  // generating more objects for one root fails with GeneratorException
+  private final long maxObjects;
+
+  private GraphLimits(int maxDepth, CyclePolicy cyclePolicy, long maxObjects) {
+    this.maxDepth = maxDepth;
+    this.cyclePolicy = cyclePolicy;
+    this.maxObjects = maxObjects;
+  }
+
+  int getMaxDepth() {
+    return maxDepth;
+  }
+
+  CyclePolicy getCyclePolicy() {
+    return cyclePolicy;
+  }
+
+  long getMaxObjects() {
+    return maxObjects;
+  }
+
+  GraphLimits withMaxDepth(int maxDepth) {
+    if (maxDepth < 0) {
+      throw new IllegalArgumentException("maxDepth must not be negative");
+    }
+    return new GraphLimits(maxDepth, cyclePolicy, maxObjects);
+  }
+
+  GraphLimits withCyclePolicy(CyclePolicy cyclePolicy) {
+    return new GraphLimits(maxDepth, Objects.requireNonNull(cyclePolicy), maxObjects);
+  }
+
+  GraphLimits withMaxObjects(long maxObjects) {
+    if (maxObjects <= 0) {
+      throw new IllegalArgumentException("maxObjects must be positive");
+    }
+    return new GraphLimits(maxDepth, cyclePolicy, maxObjects);
+  }
+}
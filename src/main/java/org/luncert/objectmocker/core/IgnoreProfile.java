@@ -0,0 +1,79 @@
+package org.luncert.objectmocker.core;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.luncert.objectmocker.exception.GeneratorException;
+
+/**
+ * IgnoreProfile, fields to be ignored temporarily, resolved into a bitmask over field layout
+ * of target type. Create it once with {@link ObjectGenerator#ignoreProfile(String...)} and
+ * reuse it, generating with a profile needs neither allocation nor string lookup.
+ * Names that don't match any field are ignored.
+ * @author Luncert
+ */
+public final class IgnoreProfile {
+
+  /**
+   * Profile ignoring nothing, could be used with any target type.
+   */
+  public static final IgnoreProfile NONE = new IgnoreProfile(null, new long[0]);
+
+  private final Class<?> targetType;
+
+  // bit i is set if slot i of GenerationPlan is ignored
+  private final long[] mask;
+
+  private IgnoreProfile(Class<?> targetType, long[] mask) {
+    this.targetType = targetType;
+    this.mask = mask;
+  }
+
+  /**
+   * Resolve field names against field layout.
+   * @param targetType target type
+   * @param slots all writable fields of target type, their order only depends on target type
+   * @param fieldNames names of fields to be ignored
+   * @return IgnoreProfile
+   */
+  static IgnoreProfile resolve(Class<?> targetType, FieldSlot[] slots, String... fieldNames) {
+    if (fieldNames.length == 0) {
+      return NONE;
+    }
+    Set<String> names = new HashSet<>(Arrays.asList(fieldNames));
+    long[] mask = new long[(slots.length + 63) >>> 6];
+    boolean empty = true;
+    for (FieldSlot slot : slots) {
+      if (names.contains(slot.getName())) {
+        mask[slot.getIndex() >>> 6] |= 1L << slot.getIndex();
+        empty = false;
+      }
+    }
+    return empty ? NONE : new IgnoreProfile(targetType, mask);
+  }
+
+  public Class<?> getTargetType() {
+    return targetType;
+  }
+
+  boolean isEmpty() {
+    return this == NONE;
+  }
+
+  /**
+   * Check whether slot at index is ignored.
+   * @param index index of FieldSlot
+   * @return boolean
+   */
+  boolean ignores(int index) {
+    return (mask[index >>> 6] & (1L << index)) != 0;
+  }
+
+  void checkTargetType(Class<?> clazz) {
+    if (this != NONE && targetType != clazz) {
+      throw new GeneratorException("IgnoreProfile of class %s couldn't be used for class %s.",
+          targetType.getSimpleName(), clazz.getSimpleName());
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package org.luncert.objectmocker.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+
+import org.luncert.objectmocker.exception.GeneratorException;
+
+/**
+ * Instantiator, creates new instances of target class with its public no-arg constructor.
+ * The constructor is resolved once into a {@link MethodHandle}.
+ * @author Luncert
+ */
+abstract class Instantiator {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  /**
+   * Create a new instance of target class.
+   * @return new instance
+   * @throws GeneratorException failed to create new instance
+   */
+  abstract Object newInstance();
+
+  /**
+   * Resolve Instantiator for target class. If the class has no accessible no-arg constructor,
+   * returned Instantiator fails on each invocation, so classes only used with
+   * a subset of features could still be registered.
+   * @param targetType target class
+   * @return Instantiator
+   */
+  static Instantiator of(Class<?> targetType) {
+    MethodHandle constructor;
+    try {
+      Constructor<?> ctor = targetType.getConstructor();
+      ctor.setAccessible(true);
+      constructor = LOOKUP.unreflectConstructor(ctor)
+          .asType(MethodType.methodType(Object.class));
+    } catch (Exception e) {
+      return new Instantiator() {
+        @Override
+        Object newInstance() {
+          throw new GeneratorException(e, "Failed to create a new instance of target class %s.",
+              targetType.getSimpleName());
+        }
+      };
+    }
+    return new MethodHandleInstantiator(targetType, constructor);
+  }
+
+  private static final class MethodHandleInstantiator extends Instantiator {
+
+    private final Class<?> targetType;
+    private final MethodHandle constructor;
+
+    MethodHandleInstantiator(Class<?> targetType, MethodHandle constructor) {
+      this.targetType = targetType;
+      this.constructor = constructor;
+    }
+
+    @Override
+    Object newInstance() {
+      try {
+        return (Object) constructor.invokeExact();
+      } catch (Throwable e) {
+        throw new GeneratorException(e, "Failed to create a new instance of target class %s.",
+            targetType.getSimpleName());
+      }
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package org.luncert.objectmocker.core;
+
+/**
+ * Generator of primitive int values. ObjectGenerator writes fields of type int
+ * with it directly, so values are never boxed.
+ * @author Luncert
+ */
+@FunctionalInterface
+public interface IntValueGenerator {
+
+  /**
+   * Generate an int value.
+   * @param context ObjectMockContext which is generating, may be null
+   * @return int value
+   */
+  int nextInt(ObjectMockContext context);
+}
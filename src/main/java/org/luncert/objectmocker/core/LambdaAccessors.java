@@ -0,0 +1,96 @@
+package org.luncert.objectmocker.core;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.luncert.objectmocker.exception.GeneratorException;
+
+/**
+ * LambdaAccessors, binds the public no-arg constructor of target type to a {@link Supplier}
+ * with {@link LambdaMetafactory}, so JIT could inline instantiation like hand-written code.
+ * Fields are still written by {@link FieldAccessor}, as LambdaMetafactory couldn't bind
+ * field writes.
+ * Only public constructors of public classes visible to ObjectMocker could be bound,
+ * in any other case null is returned and caller should fall back to MethodHandles.
+ * @author Luncert
+ */
+@Slf4j
+final class LambdaAccessors {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private LambdaAccessors() {
+  }
+
+  /**
+   * Bind public no-arg constructor of target type.
+   * @param targetType target class
+   * @return Instantiator, or null if constructor couldn't be bound
+   */
+  static Instantiator instantiator(Class<?> targetType) {
+    if (!isBindable(targetType)) {
+      return null;
+    }
+    try {
+      Constructor<?> ctor = targetType.getConstructor();
+      CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get",
+          MethodType.methodType(Supplier.class),
+          MethodType.methodType(Object.class),
+          LOOKUP.unreflectConstructor(ctor),
+          MethodType.methodType(targetType));
+      Supplier<?> supplier = (Supplier<?>) site.getTarget().invokeExact();
+      return new LambdaInstantiator(targetType, supplier);
+    } catch (Throwable e) {
+      log.debug("{} - Constructor couldn't be compiled, fall back to MethodHandle.",
+          targetType.getSimpleName(), e);
+      return null;
+    }
+  }
+
+  /**
+   * Spun classes are defined with ObjectMocker as host, so classes they refer to must be
+   * public and resolvable from ObjectMocker's class loader.
+   */
+  private static boolean isBindable(Class<?> clazz) {
+    for (Class<?> c = clazz; c != null; c = c.getEnclosingClass()) {
+      if (!Modifier.isPublic(c.getModifiers())) {
+        return false;
+      }
+    }
+    try {
+      return Class.forName(clazz.getName(), false, LambdaAccessors.class.getClassLoader())
+          == clazz;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  private static final class LambdaInstantiator extends Instantiator {
+
+    private final Class<?> targetType;
+    private final Supplier<?> supplier;
+
+    LambdaInstantiator(Class<?> targetType, Supplier<?> supplier) {
+      this.targetType = targetType;
+      this.supplier = supplier;
+    }
+
+    @Override
+    Object newInstance() {
+      try {
+        return supplier.get();
+      } catch (Throwable e) {
+        // constructor may throw checked exceptions through the spun class too
+        throw new GeneratorException(e, "Failed to create a new instance of target class %s.",
+            targetType.getSimpleName());
+      }
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package org.luncert.objectmocker.core;
+
+/**
+ * Generator of primitive long values. ObjectGenerator writes fields of type long
+ * with it directly, so values are never boxed.
+ * @author Luncert
+ */
+@FunctionalInterface
+public interface LongValueGenerator {
+
+  /**
+   * Generate a long value.
+   * @param context ObjectMockContext which is generating, may be null
+   * @return long value
+   */
+  long nextLong(ObjectMockContext context);
+}
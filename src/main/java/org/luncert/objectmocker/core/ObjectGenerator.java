@@ -1,18 +1,17 @@
 package org.luncert.objectmocker.core;
 
-import static org.luncert.objectmocker.core.RealObjectMockContext.BUILTIN_GENERATORS;
-import static org.luncert.objectmocker.core.RealObjectMockContext.DEFAULT_LIST_SIZE;
+import static org.luncert.objectmocker.builtingenerator.BuiltinGeneratorBuilder.regexGenerator;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 import java.io.Serializable;
+import java.lang.reflect.Array;
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.security.InvalidParameterException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -23,18 +22,19 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
 
 import lombok.Getter;
-import lombok.extern.slf4j.Slf4j;
 
-import org.apache.commons.lang3.RandomUtils;
 import org.luncert.objectmocker.exception.GeneratorException;
 
 /**
  * ObjectGenerator.
  * @author Luncert
  */
-@Slf4j
 public final class ObjectGenerator implements Serializable, IObjectMockContextAware {
 
   private static final long serialVersionUID = 5287347012157068215L;
@@ -59,27 +59,49 @@ public final class ObjectGenerator implements Serializable, IObjectMockContextAw
         .build();
   }
   
+  // Pattern doesn't override equals, so patterns are cached by identity
+  private static final Map<Pattern, AbstractGenerator<String>> REGEX_GENERATORS =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
   private ObjectMockContext context;
   
   // target type to generate
   @Getter
   private Class<?> targetType;
-  
-  // ignoring fields
-  private Set<String> ignores = new HashSet<>();
-  
-  // specify field generators
-  private Map<Field, AbstractGenerator> fieldGenerators = new HashMap<>();
 
-  ObjectGenerator(Class<?> clazz) {
-    this.targetType = clazz;
+  // bind constructor and setters with LambdaMetafactory instead of MethodHandles
+  private boolean compiledAccessors;
+
+  // current configuration, replaced as a whole whenever ignores or field generators change
+  private volatile Config config;
+
+  /**
+   * Config, immutable snapshot of ignores and field generators,
+   * with the GenerationPlan compiled from it.
+   */
+  static final class Config implements Serializable {
+
+    private static final long serialVersionUID = 2460953874311826593L;
+
+    // ignoring fields
+    private final Set<String> ignores;
+
+    // specify field generators
+    private final Map<Field, AbstractGenerator> fieldGenerators;
+
+    // compiled lazily, compiling twice in a race is harmless
+    private transient volatile GenerationPlan plan;
+
+    private Config(Set<String> ignores, Map<Field, AbstractGenerator> fieldGenerators) {
+      this.ignores = ImmutableSet.copyOf(ignores);
+      this.fieldGenerators = ImmutableMap.copyOf(fieldGenerators);
+    }
   }
 
   ObjectGenerator(Class<?> clazz, Set<String> ignores,
                           Map<Field, AbstractGenerator> fieldGenerators) {
     this.targetType = clazz;
-    this.ignores.addAll(ignores);
-    this.fieldGenerators.putAll(fieldGenerators);
+    this.config = new Config(ignores, fieldGenerators);
   }
   
   /**
@@ -88,7 +110,52 @@ public final class ObjectGenerator implements Serializable, IObjectMockContextAw
    * @return new instance
    */
   ObjectGenerator copy() {
-    return new ObjectGenerator(this.targetType, this.ignores, this.fieldGenerators);
+    Config current = config;
+    ObjectGenerator generator = new ObjectGenerator(this.targetType, current.ignores,
+        current.fieldGenerators);
+    generator.compiledAccessors = this.compiledAccessors;
+    return generator;
+  }
+
+  /**
+   * Create a copy of this generator belonging to specified context, with a configuration this
+   * generator had before, the configuration and its compiled plan are shared with the copy.
+   * @param context ObjectMockContext which the copy belongs to
+   * @param pinned previous configuration of this generator
+   * @return new instance
+   */
+  ObjectGenerator copy(ObjectMockContext context, Config pinned) {
+    ObjectGenerator generator = copy(context);
+    generator.config = pinned;
+    return generator;
+  }
+
+  /**
+   * Create a copy of this generator belonging to specified context, without rebinding
+   * field generators shared with this one.
+   * @param context ObjectMockContext which the copy belongs to
+   * @return new instance
+   */
+  ObjectGenerator copy(ObjectMockContext context) {
+    ObjectGenerator generator = copy();
+    generator.context = context;
+    return generator;
+  }
+
+  /**
+   * Apply modifier to a copy of this generator, this one is not changed. The copy is published
+   * after all modifications, so concurrent generating never observes a partial modification,
+   * and contexts sharing this generator are not affected.
+   * @param context ObjectMockContext which the copy belongs to
+   * @param modifier ObjectGeneratorModifier
+   * @return modified copy
+   * @throws Exception exception thrown by modifier
+   */
+  ObjectGenerator modified(ObjectMockContext context, ObjectGeneratorModifier modifier)
+      throws Exception {
+    ObjectGenerator draft = copy(context);
+    modifier.accept(draft);
+    return draft;
   }
 
   /**
@@ -99,7 +166,7 @@ public final class ObjectGenerator implements Serializable, IObjectMockContextAw
   @Override
   public void setObjectMockContext(ObjectMockContext context) {
     this.context = context;
-    fieldGenerators.values().forEach(
+    config.fieldGenerators.values().forEach(
         generator -> generator.setObjectMockContext(context));
   }
 
@@ -108,7 +175,13 @@ public final class ObjectGenerator implements Serializable, IObjectMockContextAw
    * @param ignores string array of fields need be ignored.
    */
   public void addIgnores(String...ignores) {
-    this.ignores.addAll(Arrays.asList(ignores));
+    synchronized (this) {
+      Config current = config;
+      Set<String> newIgnores = new HashSet<>(current.ignores);
+      newIgnores.addAll(Arrays.asList(ignores));
+      config = new Config(newIgnores, current.fieldGenerators);
+    }
+    afterWrite();
   }
 
   /**
@@ -116,11 +189,60 @@ public final class ObjectGenerator implements Serializable, IObjectMockContextAw
    * @param ignores string array of fields need be removed from ignores.
    */
   public void removeIgnores(String...ignores) {
-    this.ignores.removeAll(Arrays.asList(ignores));
+    synchronized (this) {
+      Config current = config;
+      Set<String> newIgnores = new HashSet<>(current.ignores);
+      newIgnores.removeAll(Arrays.asList(ignores));
+      config = new Config(newIgnores, current.fieldGenerators);
+    }
+    afterWrite();
+  }
+
+  /**
+   * Called after this generator is modified in place, so that its context pins the new
+   * configuration, while contexts copied from it keep the configuration they have pinned.
+   */
+  private void afterWrite() {
+    if (context instanceof RealObjectMockContext) {
+      ((RealObjectMockContext) context).repin(this);
+    }
+  }
+
+  /**
+   * Get context this generator is registered with, only that context shares modifications
+   * made in place.
+   * @return ObjectMockContext, or null if it is not registered
+   */
+  ObjectMockContext getObjectMockContext() {
+    return context;
   }
 
   Set<String> getIgnores() {
-    return ignores;
+    return config.ignores;
+  }
+
+  Config getConfig() {
+    return config;
+  }
+
+  /**
+   * Create a generator which applies configurations of this one over basic generator,
+   * ignores are united and field generators of this one take precedence.
+   * @param basicGenerator basic ObjectGenerator
+   * @return new instance, its context is not set
+   */
+  ObjectGenerator overlay(ObjectGenerator basicGenerator) {
+    Config current = config;
+    Config basicConfig = basicGenerator.config;
+    Set<String> newIgnores = new HashSet<>(current.ignores);
+    newIgnores.addAll(basicConfig.ignores);
+    Map<Field, AbstractGenerator> newFieldGenerators = new HashMap<>(current.fieldGenerators);
+    for (Map.Entry<Field, AbstractGenerator> entry : basicConfig.fieldGenerators.entrySet()) {
+      newFieldGenerators.putIfAbsent(entry.getKey(), entry.getValue());
+    }
+    ObjectGenerator generator = new ObjectGenerator(targetType, newIgnores, newFieldGenerators);
+    generator.compiledAccessors = basicGenerator.compiledAccessors;
+    return generator;
   }
 
   /**
@@ -157,11 +279,19 @@ public final class ObjectGenerator implements Serializable, IObjectMockContextAw
       throws NoSuchFieldException {
     Objects.requireNonNull(fieldName);
     Objects.requireNonNull(fieldGenerator);
-    fieldGenerator.setObjectMockContext(this.context);
-    fieldGenerators.put(resolveField(fieldName), fieldGenerator);
+    Field field = resolveField(targetType, fieldName);
+    synchronized (this) {
+      fieldGenerator.setObjectMockContext(this.context);
+      Config current = config;
+      Map<Field, AbstractGenerator> newFieldGenerators = new HashMap<>(current.fieldGenerators);
+      newFieldGenerators.put(field, fieldGenerator);
+      config = new Config(current.ignores, newFieldGenerators);
+    }
+    afterWrite();
   }
 
-  private Field resolveField(String fieldName) throws NoSuchFieldException {
+  private static Field resolveField(Class<?> targetType, String fieldName)
+      throws NoSuchFieldException {
     Field field;
     try {
       field = targetType.getField(fieldName);
@@ -172,7 +302,31 @@ public final class ObjectGenerator implements Serializable, IObjectMockContextAw
   }
 
   Map<Field, AbstractGenerator> getFieldGenerators() {
-    return fieldGenerators;
+    return config.fieldGenerators;
+  }
+
+  /**
+   * Check whether any ignore or field generator has been configured.
+   * @return boolean
+   */
+  boolean isCustomized() {
+    Config current = config;
+    return !current.ignores.isEmpty() || !current.fieldGenerators.isEmpty();
+  }
+
+  /**
+   * Get compiled GenerationPlan, compile it if this generator has been modified.
+   * @return GenerationPlan
+   */
+  GenerationPlan getPlan() {
+    Config current = config;
+    GenerationPlan plan = current.plan;
+    if (plan == null) {
+      plan = GenerationPlan.compile(targetType, compiledAccessors,
+          current.ignores, current.fieldGenerators);
+      current.plan = plan;
+    }
+    return plan;
   }
 
   /**
@@ -180,183 +334,166 @@ public final class ObjectGenerator implements Serializable, IObjectMockContextAw
    * @param tmpIgnores ignore specified fields
    * @return target object
    */
-  @SuppressWarnings("unchecked")
   Object generate(String...tmpIgnores) {
-    String className = targetType.getSimpleName();
+    return generate(context, tmpIgnores);
+  }
 
-    // try to create new instance for target class
-    
-    Object target;
-    try {
-      target = targetType.getConstructor().newInstance();
-    } catch (Exception e) {
-      throw new GeneratorException("Failed to create a new instance of target class %s.",
-          className);
-    }
+  /**
+   * create a new instance and generate fields value for it.
+   * @param context ObjectMockContext generating nested objects, generator may be shared
+   *                by several contexts
+   * @param tmpIgnores ignore specified fields
+   * @return target object
+   */
+  Object generate(ObjectMockContext context, String...tmpIgnores) {
+    GenerationPlan currentPlan = getPlan();
+    return generate(context, currentPlan, resolveIgnores(currentPlan, tmpIgnores));
+  }
 
-    // generate field values for new instance
-    
-    Set<String> tmpIgnoreSet = tmpIgnores.length == 0
-        ? Collections.EMPTY_SET : new HashSet<>(Arrays.asList(tmpIgnores));
+  /**
+   * create a new instance and generate fields value for it.
+   * @param context ObjectMockContext generating nested objects
+   * @param profile fields to be ignored temporarily
+   * @return target object
+   */
+  Object generate(ObjectMockContext context, IgnoreProfile profile) {
+    profile.checkTargetType(targetType);
+    return generate(context, getPlan(), profile);
+  }
 
-    Class<?> objectClass = this.targetType;
-    // loop to scan all fields of target type, including its super classes.
-    while (!Object.class.equals(objectClass)) {
-      try {
-        for (Field field : objectClass.getDeclaredFields()) {
-          String fieldName = field.getName();
-
-          // skip static, final or jvm-generated fields
-          int modifiers = field.getModifiers();
-          if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()) {
-            log.debug("{}.{} - Field has been skipped because it is static, final,"
-                + " or generated by compiler.", className, fieldName);
-            continue;
-          }
-
-          // skip field need be ignored
-          // TODO: compress two hash value locating into one time.
-          if (tmpIgnoreSet.contains(fieldName) || ignores.contains(fieldName)) {
-            continue;
-          }
-
-          // To set value for field, we need set it accessible at first
-          field.setAccessible(true);
-          field.set(target, generateField(field));
-        }
-      } catch (IllegalAccessException e) {
-        throw new GeneratorException(e,
-              "Failed to set generated field value for instance of class %s.", className);
-      }
+  /**
+   * Resolve fields to be ignored temporarily into a reusable IgnoreProfile,
+   * which could be passed to {@link ObjectMockContext#generate(Class, IgnoreProfile)}.
+   * @param fieldNames names of fields to be ignored
+   * @return IgnoreProfile
+   */
+  public IgnoreProfile ignoreProfile(String...fieldNames) {
+    return resolveIgnores(getPlan(), fieldNames);
+  }
 
-      // turn to parent class
-      objectClass = objectClass.getSuperclass();
-    }
-    
-    return targetType.cast(target);
+  private IgnoreProfile resolveIgnores(GenerationPlan currentPlan, String...fieldNames) {
+    return IgnoreProfile.resolve(targetType, currentPlan.getSlots(), fieldNames);
   }
 
   /**
-   * create a new instance based on json configure.
-   * TODO: support control literal, like regexp.
-   * TODO: provide config builder.
-   * @param config <pre>Map&lt;String, Object&gt;</pre>
-   * @return target object
+   * Resolve plan and ignores once, and return a supplier generating new objects with them.
+   * Used by bulk generation, modification made after this call won't affect the supplier.
+   * @param context ObjectMockContext generating nested objects
+   * @param tmpIgnores ignore specified fields
+   * @return object supplier
    */
-  @Deprecated
-  Object generate(Map<String, Object> config) {
-    String className = targetType.getSimpleName();
+  Supplier<Object> bind(ObjectMockContext context, String...tmpIgnores) {
+    GenerationPlan currentPlan = getPlan();
+    IgnoreProfile profile = resolveIgnores(currentPlan, tmpIgnores);
+    return () -> generate(context, currentPlan, profile);
+  }
 
-    // try create new instance for target class
-    Object target;
-    try {
-      target = targetType.getConstructor().newInstance();
-    } catch (Exception e) {
-      throw new GeneratorException("Failed to create a new instance of target class %s.",
-          className);
-    }
+  /**
+   * Overwrite fields of a previously generated instance in place.
+   * @param context ObjectMockContext generating nested objects
+   * @param target instance of target type
+   * @param tmpIgnores fields keeping their current values
+   * @return target object, the same instance
+   */
+  Object refill(ObjectMockContext context, Object target, String...tmpIgnores) {
+    GenerationPlan currentPlan = getPlan();
+    return GraphGeneration.refill(context, currentPlan,
+        resolveIgnores(currentPlan, tmpIgnores), target);
+  }
 
-    Class<?> objectClass = this.targetType;
-    while (!Object.class.equals(objectClass)) {
-      try {
-        for (Field field : objectClass.getDeclaredFields()) {
-          String fieldName = field.getName();
-          Class<?> fieldType = field.getType();
-
-          // skip static or final field
-          int modifiers = field.getModifiers();
-          if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()) {
-            log.debug("{}.{} - Field has been skipped because it has static or"
-                + " final modifier, or generated by compiler.", className, fieldName);
-            continue;
-          }
-
-          if (config.containsKey(fieldName)) {
-            Object baseValue = config.get(fieldName);
-            // skip field need be ignored
-            if (baseValue == null) {
-              continue;
-            }
-            // parse baseValue
-            field.setAccessible(true);
-            field.set(target, parseValue(baseValue, field));
-          } else if (!ignores.contains(fieldName)) {
-            // To set value for field, we need set it accessible at first
-            field.setAccessible(true);
-            field.set(target, generateField(field));
-          }
-        }
-      } catch (IllegalAccessException e) {
-        throw new GeneratorException(e,
-            "Failed to set field value for instance of class %s.", className);
-      }
+  /**
+   * Resolve plan and ignores once, and return a function refilling instances with them.
+   * Used by {@link ObjectPool}, modification made after this call won't affect it.
+   * @param context ObjectMockContext generating nested objects
+   * @param tmpIgnores fields keeping their current values
+   * @return refilling function
+   */
+  UnaryOperator<Object> bindRefill(ObjectMockContext context, String...tmpIgnores) {
+    GenerationPlan currentPlan = getPlan();
+    IgnoreProfile profile = resolveIgnores(currentPlan, tmpIgnores);
+    return target -> GraphGeneration.refill(context, currentPlan, profile, target);
+  }
 
-      // turn to parent class
-      objectClass = objectClass.getSuperclass();
-    }
-    return targetType.cast(target);
+  private static Object generate(ObjectMockContext context, GenerationPlan currentPlan,
+                                 IgnoreProfile profile) {
+    return GraphGeneration.generate(context, currentPlan, profile);
   }
 
-  @SuppressWarnings("unchecked")
-  private Object generateField(Field field) {
-    Class<?> fieldType = field.getType();
-    // generate field value using fieldGenerator
-    AbstractGenerator generator = fieldGenerators.get(field);
-    if (generator != null) {
-      Class<?> elemType = fieldType;
-      // if field is a list, we should forward its parameter type to the generator
-      if (List.class.equals(elemType)) {
-        elemType = getParameterType(field);
+  /**
+   * Generate field values for a new instance.
+   * @param context ObjectMockContext generating nested objects
+   * @param currentPlan GenerationPlan of target type
+   * @param profile fields to be ignored temporarily
+   * @param target new instance created by plan
+   */
+  static void fill(ObjectMockContext context, GenerationPlan currentPlan,
+                   IgnoreProfile profile, Object target) {
+    FieldSlot[] slots = currentPlan.getActiveSlots();
+    if (profile.isEmpty()) {
+      for (FieldSlot slot : slots) {
+        slot.generateInto(target, context);
       }
-      return generator.generate(elemType);
-    } else if ((generator = BUILTIN_GENERATORS.get(fieldType)) != null) {
-      // generate field value using built-in generator
-      return generator.generate(fieldType);
-    } else if (fieldType.isEnum()) {
-      // if target field need an enum value, generate value directly
-      return generateEnum(fieldType);
-    } else if (List.class.equals(field.getType())) {
-      // generate list field
-      return generateList(field);
     } else {
-      return context.generate(fieldType);
+      for (FieldSlot slot : slots) {
+        // skip field need be ignored temporarily
+        if (!profile.ignores(slot.getIndex())) {
+          slot.generateInto(target, context);
+        }
+      }
     }
   }
 
-  private <T> T generateEnum(Class<T> type) {
-    T[] enumValues = type.getEnumConstants();
-    // cannot generate value with empty enum
-    if (enumValues.length == 0) {
-      throw new GeneratorException("Couldn't generate a value with empty enum"
-          + type.getSimpleName() + ".");
+  /**
+   * Generate field values for a recycled instance, reusing nested objects and containers
+   * its fields already hold.
+   * @param context ObjectMockContext generating nested objects
+   * @param currentPlan GenerationPlan of target type
+   * @param profile fields to be ignored temporarily
+   * @param target recycled instance
+   */
+  static void refill(ObjectMockContext context, GenerationPlan currentPlan,
+                     IgnoreProfile profile, Object target) {
+    for (FieldSlot slot : currentPlan.getActiveSlots()) {
+      if (profile.isEmpty() || !profile.ignores(slot.getIndex())) {
+        slot.refillInto(target, context);
+      }
     }
-    return enumValues[RandomUtils.nextInt(0, enumValues.length)];
   }
 
-  @SuppressWarnings("unchecked")
-  private Object generateList(Field field) {
-    ObjectSupplier supplier;
-    List list = new ArrayList<>();
-    Class<?> elemClass = getParameterType(field);
-
-    if (BUILTIN_GENERATORS.containsKey(elemClass)) {
-      supplier = (context, clazz) -> BUILTIN_GENERATORS.get(elemClass).generate(clazz);
-    } else if (elemClass.isEnum()) {
-      Object[] enumValues = elemClass.getEnumConstants();
-      supplier = (context, clazz) -> enumValues[RandomUtils.nextInt(0, enumValues.length)];
-    } else {
-      supplier = (context, clazz) -> context.generate(elemClass);
-    }
+  /**
+   * create a new instance based on json configure, a {@link Pattern} configured for a
+   * String field generates a value matching it.
+   * TODO: provide config builder.
+   * @param context ObjectMockContext generating nested objects
+   * @param config <pre>Map&lt;String, Object&gt;</pre>
+   * @return target object
+   */
+  @Deprecated
+  Object generate(ObjectMockContext context, Map<String, Object> config) {
+    GenerationPlan currentPlan = getPlan();
 
-    for (int i = 0; i < DEFAULT_LIST_SIZE; i++) {
-      list.add(supplier.getObject(context, elemClass));
+    // try create new instance for target class
+    Object target = currentPlan.newInstance();
+
+    for (FieldSlot slot : currentPlan.getSlots()) {
+      String fieldName = slot.getName();
+      if (config.containsKey(fieldName)) {
+        Object baseValue = config.get(fieldName);
+        // skip field need be ignored
+        if (baseValue == null) {
+          continue;
+        }
+        // parse baseValue
+        slot.set(target, parseValue(context, baseValue, slot.getField()));
+      } else if (!slot.isIgnored()) {
+        slot.set(target, slot.generate(context));
+      }
     }
-
-    return list;
+    return targetType.cast(target);
   }
 
   @SuppressWarnings("unchecked")
-  private Object parseValue(Object raw, Field field) {
+  private static Object parseValue(ObjectMockContext context, Object raw, Field field) {
     Class<?> fieldType = field.getType();
     if (raw instanceof String) {
       ValueParser parser = VALUE_PARSERS.get(fieldType);
@@ -370,12 +507,15 @@ public final class ObjectGenerator implements Serializable, IObjectMockContextAw
         throw new GeneratorException("Couldn't parse value %s to type %s.",
             raw, fieldType.getName());
       }
+    } else if (raw instanceof Pattern && String.class.equals(fieldType)) {
+      return regexGeneratorOf((Pattern) raw).generate(context, String.class);
     } else if (raw instanceof List) {
       List list = (List) raw;
       List<Object> ret = new LinkedList<>();
+      Class<?> elemClass;
       try {
+        elemClass = fieldType.isArray() ? fieldType.getComponentType() : getParameterType(field);
         for (Object tmp : list) {
-          Class<?> elemClass = getParameterType(field);
           Map item = (Map) tmp;
           ret.add(context.generate(elemClass, item));
         }
@@ -383,14 +523,37 @@ public final class ObjectGenerator implements Serializable, IObjectMockContextAw
         throw new GeneratorException("Invalid config data type %s, expect List or String.",
             raw.getClass().getName());
       }
+      if (fieldType.isArray()) {
+        Object array = Array.newInstance(elemClass, ret.size());
+        int i = 0;
+        for (Object elem : ret) {
+          Array.set(array, i++, elem);
+        }
+        return array;
+      }
       return ret;
     } else {
-      throw new GeneratorException("Invalid config data type %s, expect List or String.",
+      throw new GeneratorException(
+          "Invalid config data type %s, expect List, String or Pattern.",
           raw.getClass().getName());
     }
   }
 
-  private Class<?> getParameterType(Field field) {
+  /**
+   * Get generator compiled from pattern, compiled once for each Pattern instance.
+   * Values generated case sensitively match a case insensitive pattern as well, other flags
+   * change the meaning of the regex and are not supported.
+   * @throws IllegalArgumentException if pattern has flags other than CASE_INSENSITIVE
+   */
+  private static AbstractGenerator<String> regexGeneratorOf(Pattern pattern) {
+    if ((pattern.flags() & ~Pattern.CASE_INSENSITIVE) != 0) {
+      throw new IllegalArgumentException("Unsupported flags of pattern " + pattern.pattern()
+          + ", only CASE_INSENSITIVE is supported.");
+    }
+    return REGEX_GENERATORS.computeIfAbsent(pattern, p -> regexGenerator(p.pattern()));
+  }
+
+  static Class<?> getParameterType(Field field) {
     // determine element type
     ParameterizedType parameterizedType = (ParameterizedType) field.getGenericType();
     Type[] actualTypeArgs = parameterizedType.getActualTypeArguments();
@@ -415,14 +578,28 @@ public final class ObjectGenerator implements Serializable, IObjectMockContextAw
    * Fast build ObjectGenerator with user provided configuration.
    */
   public static class ObjectGeneratorBuilder {
-    private ObjectGenerator ins;
+    private final Class<?> targetType;
+    private final Set<String> ignores = new HashSet<>();
+    private final Map<Field, AbstractGenerator> fieldGenerators = new HashMap<>();
+    private boolean compiledAccessors;
 
     private ObjectGeneratorBuilder(Class<?> clazz) {
-      ins = new ObjectGenerator(clazz);
+      targetType = clazz;
     }
 
     public ObjectGeneratorBuilder addIgnores(String...ignores) {
-      ins.ignores.addAll(Arrays.asList(ignores));
+      this.ignores.addAll(Arrays.asList(ignores));
+      return this;
+    }
+
+    /**
+     * Create instances through a class spun at runtime, which calls the public no-arg
+     * constructor directly. Fields are written directly like default accessors do, setters are
+     * never called. Target classes that are not public fall back to MethodHandles automatically.
+     * @return ObjectGeneratorBuilder
+     */
+    public ObjectGeneratorBuilder compiledAccessors() {
+      compiledAccessors = true;
       return this;
     }
 
@@ -465,13 +642,13 @@ public final class ObjectGenerator implements Serializable, IObjectMockContextAw
         throws NoSuchFieldException {
       Objects.requireNonNull(fieldName);
       Objects.requireNonNull(fieldGenerator);
-      Field field = ins.resolveField(fieldName);
-      if (ins.fieldGenerators.containsKey(field)) {
+      Field field = resolveField(targetType, fieldName);
+      if (fieldGenerators.containsKey(field)) {
         throw new InvalidParameterException("One generator has been set for target field: "
             + fieldName + ", you could only set a field generator for each"
             + " field once when build ObjectGenerator.");
       }
-      ins.fieldGenerators.put(field, fieldGenerator);
+      fieldGenerators.put(field, fieldGenerator);
       return this;
     }
 
@@ -482,21 +659,31 @@ public final class ObjectGenerator implements Serializable, IObjectMockContextAw
      * @return ObjectGenerator
      */
     public ObjectGenerator extend(final ObjectGenerator basicGenerator) {
-      if (!ins.targetType.equals(basicGenerator.targetType)) {
+      if (!targetType.equals(basicGenerator.targetType)) {
         throw new GeneratorException("Extended ObjectGenerator should"
             + " has the same target class as the basic ObjectGenerator.");
       }
-      ins.context = basicGenerator.context;
-      ins.ignores.addAll(basicGenerator.ignores);
-      for (Map.Entry<Field, AbstractGenerator> entry : basicGenerator.fieldGenerators.entrySet()) {
-        if (!ins.fieldGenerators.containsKey(entry.getKey())) {
-          ins.fieldGenerators.put(entry.getKey(), entry.getValue());
-        }
+      // merge into copies, so builder state is not changed and builder could be reused
+      Config basicConfig = basicGenerator.config;
+      Set<String> newIgnores = new HashSet<>(ignores);
+      newIgnores.addAll(basicConfig.ignores);
+      Map<Field, AbstractGenerator> newFieldGenerators = new HashMap<>(fieldGenerators);
+      for (Map.Entry<Field, AbstractGenerator> entry : basicConfig.fieldGenerators.entrySet()) {
+        newFieldGenerators.putIfAbsent(entry.getKey(), entry.getValue());
       }
+      ObjectGenerator ins = new ObjectGenerator(targetType, newIgnores, newFieldGenerators);
+      ins.compiledAccessors = compiledAccessors || basicGenerator.compiledAccessors;
+      ins.context = basicGenerator.context;
       return ins;
     }
 
+    /**
+     * Build ObjectGenerator, builder could be reused after building.
+     * @return ObjectGenerator
+     */
     public ObjectGenerator build() {
+      ObjectGenerator ins = new ObjectGenerator(targetType, ignores, fieldGenerators);
+      ins.compiledAccessors = compiledAccessors;
       return ins;
     }
   }
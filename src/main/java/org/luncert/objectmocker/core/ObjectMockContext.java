@@ -1,7 +1,13 @@
 package org.luncert.objectmocker.core;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.luncert.objectmocker.random.RandomSource;
 
 public interface ObjectMockContext {
 
@@ -12,6 +18,28 @@ public interface ObjectMockContext {
    */
   void register(ObjectGenerator objectGenerator);
 
+  /**
+   * Get RandomSource of current thread, generators should draw random values from it.
+   * @return RandomSource
+   */
+  RandomSource getRandomSource();
+
+  /**
+   * Whether context is seeded, its bulk generation is then reproducible and generators must not
+   * let values depend on the order objects are generated in.
+   * @return true if seeded
+   */
+  boolean isSeeded();
+
+  /**
+   * Run supplier on current thread with a RandomSource derived only from seed and key, e.g. to
+   * fill values cached by a generator and shared by all objects. Unseeded context simply runs it.
+   * @param key stable key of the values, e.g. name of their type
+   * @param supplier supplier drawing random values from {@link #getRandomSource()}
+   * @return value returned by supplier
+   */
+  <T> T detached(String key, Supplier<T> supplier);
+
   /**
    * Check if any generator has been registered for target class.
    * @param clazz target class.
@@ -19,6 +47,25 @@ public interface ObjectMockContext {
    */
   boolean hasGeneratorFor(Class<?> clazz);
 
+  /**
+   * Extend the registered ObjectGenerator once, and return a handle reusing the extension.
+   * The extension is applied again only if the registered generator has been modified.
+   * @param clazz target object type, will be used to find the basic ObjectGenerator
+   * @param extender to provide the extended new ObjectGenerator
+   * @return DerivedObjectGenerator
+   */
+  <T> DerivedObjectGenerator<T> derive(Class<T> clazz, ObjectGeneratorExtender extender);
+
+  /**
+   * Generate a prototype with the registered ObjectGenerator once, and create variants of it
+   * by copying its fields and regenerating only the mutable ones, which is much cheaper than
+   * generating each object.
+   * @param clazz target object type
+   * @param mutableFields fields regenerated for each variant
+   * @return VariantGenerator
+   */
+  <T> VariantGenerator<T> variants(Class<T> clazz, String... mutableFields);
+
   /**
    * Only used to generate customized class (not enum, not interface).
    * @param clazz target object type
@@ -27,6 +74,113 @@ public interface ObjectMockContext {
    */
   <T> T generate(Class<T> clazz, String... tmpIgnores);
 
+  /**
+   * Overwrite fields of a previously generated object in place with its registered
+   * ObjectGenerator, nested objects and containers it holds are reused where their shape
+   * matches, so no new object is allocated for them.
+   * @param instance object to refill, its class must have a registered ObjectGenerator
+   * @param tmpIgnores fields keeping their current values
+   * @return the same instance
+   */
+  <T> T refill(T instance, String... tmpIgnores);
+
+  /**
+   * Create a pool recycling released objects by refilling them, plan and ignores are
+   * resolved only once.
+   * @param clazz target object type
+   * @param capacity max number of released objects kept by the pool
+   * @param tmpIgnores fields ignored when generating, they keep their values when refilling
+   * @return ObjectPool
+   */
+  <T> ObjectPool<T> pool(Class<T> clazz, int capacity, String... tmpIgnores);
+
+  /**
+   * Generate n objects at once, generator, ignores and generation plan are resolved only once.
+   * @param clazz target object type
+   * @param n number of objects
+   * @param tmpIgnores ignore specified fields
+   * @return list of generated objects
+   */
+  <T> List<T> generateMany(Class<T> clazz, int n, String... tmpIgnores);
+
+  /**
+   * Generate n objects at once and add them into provided collection.
+   * @param clazz target object type
+   * @param n number of objects
+   * @param collection collection to add generated objects into
+   * @param tmpIgnores ignore specified fields
+   * @return provided collection
+   */
+  <T, C extends Collection<? super T>> C generateMany(Class<T> clazz, int n, C collection,
+                                                      String... tmpIgnores);
+
+  /**
+   * Fill provided array with generated objects.
+   * @param clazz target object type
+   * @param array array to fill
+   * @param tmpIgnores ignore specified fields
+   * @return provided array
+   */
+  <T> T[] generateMany(Class<T> clazz, T[] array, String... tmpIgnores);
+
+  /**
+   * Generate the object at index of bulk generation, e.g. {@link #generateMany} and
+   * {@link #stream}, without generating its predecessors. Only supported by seeded context.
+   * @param clazz target object type
+   * @param index index of object in bulk generation
+   * @param tmpIgnores ignore specified fields
+   * @return generated object
+   */
+  <T> T generateAt(Class<T> clazz, long index, String... tmpIgnores);
+
+  /**
+   * Generate object with fields ignored by a pre-resolved profile.
+   * @param clazz target object type
+   * @param profile created by {@link ObjectGenerator#ignoreProfile(String...)}
+   * @return generated object
+   */
+  <T> T generate(Class<T> clazz, IgnoreProfile profile);
+
+  /**
+   * Generate objects on a dedicated ForkJoinPool, the index range is partitioned between workers
+   * and each of them writes a disjoint slice of the result array.
+   * @param clazz target object type
+   * @param n number of objects
+   * @param parallelism number of worker threads
+   * @param tmpIgnores ignore specified fields
+   * @return array of generated objects
+   */
+  <T> T[] generateParallel(Class<T> clazz, int n, int parallelism, String... tmpIgnores);
+
+  /**
+   * Start generating objects on background threads into a bounded ready queue, consumers
+   * take ready objects from it. Close the returned generator to stop the threads.
+   * @param clazz target object type
+   * @param capacity min number of ready objects buffered, workers wait while it is full
+   * @param threads number of worker threads
+   * @param tmpIgnores ignore specified fields
+   * @return PrefetchingGenerator
+   */
+  <T> PrefetchingGenerator<T> prefetching(Class<T> clazz, int capacity, int threads,
+                                          String... tmpIgnores);
+
+  /**
+   * Create an infinite stream lazily generating objects, limit it before terminal operation.
+   * @param clazz target object type
+   * @param tmpIgnores ignore specified fields
+   * @return unordered infinite stream
+   */
+  <T> Stream<T> stream(Class<T> clazz, String... tmpIgnores);
+
+  /**
+   * Create a sized stream lazily generating objects, it splits evenly in parallel.
+   * @param clazz target object type
+   * @param size number of objects
+   * @param tmpIgnores ignore specified fields
+   * @return sized stream
+   */
+  <T> Stream<T> stream(Class<T> clazz, long size, String... tmpIgnores);
+
   /**
    * Only used to generate customized class (not enum, not interface).
    * @param clazz target object type, will be used to find the basic ObjectGenerator
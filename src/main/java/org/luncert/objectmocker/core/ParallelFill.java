@@ -0,0 +1,79 @@
+package org.luncert.objectmocker.core;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongFunction;
+
+import org.apache.commons.lang3.ClassUtils;
+
+/**
+ * ParallelFill, fills index range [lo, hi) of a pre-sized array, splitting it in halves until
+ * the range is small enough. Slices are disjoint, so no locking is needed when writing results.
+ * @author Luncert
+ * @param <T> target type for generation.
+ */
+final class ParallelFill<T> extends RecursiveAction {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * number of leaf tasks created per worker, more leaves give better load balancing
+   * when objects have different generation cost.
+   */
+  private static final int LEAVES_PER_WORKER = 8;
+  private static final int MIN_LEAF_SIZE = 64;
+
+  private final Class<T> clazz;
+  private final transient LongFunction<Object> supplier;
+  private final T[] array;
+  private final int lo;
+  private final int hi;
+  private final int leafSize;
+
+  private ParallelFill(Class<T> clazz, LongFunction<Object> supplier, T[] array,
+                       int lo, int hi, int leafSize) {
+    this.clazz = clazz;
+    this.supplier = supplier;
+    this.array = array;
+    this.lo = lo;
+    this.hi = hi;
+    this.leafSize = leafSize;
+  }
+
+  static <T> T[] invoke(Class<T> clazz, int n, int parallelism,
+                        LongFunction<Object> supplier) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("parallelism must be positive");
+    }
+    // primitive class couldn't be component type of T[]
+    @SuppressWarnings("unchecked")
+    Class<T> type = (Class<T>) ClassUtils.primitiveToWrapper(clazz);
+    @SuppressWarnings("unchecked")
+    T[] array = (T[]) Array.newInstance(type, n);
+    int leafSize = Math.max(MIN_LEAF_SIZE, n / (parallelism * LEAVES_PER_WORKER));
+    if (parallelism == 1 || n <= leafSize) {
+      return RealObjectMockContext.fill(type, supplier, array);
+    }
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      pool.invoke(new ParallelFill<>(type, supplier, array, 0, n, leafSize));
+    } finally {
+      pool.shutdown();
+    }
+    return array;
+  }
+
+  @Override
+  protected void compute() {
+    if (hi - lo <= leafSize) {
+      for (int i = lo; i < hi; i++) {
+        array[i] = clazz.cast(supplier.apply(i));
+      }
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    invokeAll(new ParallelFill<>(clazz, supplier, array, lo, mid, leafSize),
+        new ParallelFill<>(clazz, supplier, array, mid, hi, leafSize));
+  }
+}
@@ -0,0 +1,167 @@
+package org.luncert.objectmocker.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+import org.luncert.objectmocker.exception.GeneratorException;
+
+/**
+ * PrefetchingGenerator, generates objects on background threads into a bounded
+ * {@link ReadyRing}, so consumers take ready objects without waiting for generation.
+ * Workers back off while the ring is full, and stop once the generator is closed or one of
+ * them fails, the failure is rethrown to consumers. Generation plan and ignores are resolved
+ * once when it is created by {@link ObjectMockContext#prefetching(Class, int, int, String...)}.
+ * @author Luncert
+ * @param <T> target type for generation.
+ */
+public final class PrefetchingGenerator<T> implements AutoCloseable {
+
+  // busy spins before yielding, then parking with PARK_NANOS
+  private static final int SPINS = 128;
+  private static final int YIELDS = 64;
+  private static final long PARK_NANOS = 50_000L;
+
+  private final Class<T> targetType;
+  private final LongFunction<Object> supplier;
+  private final ReadyRing<Object> ring;
+  private final Thread[] workers;
+  // index of next object, passed to supplier so that seeded context stays reproducible
+  private final AtomicLong nextIndex = new AtomicLong();
+  private volatile boolean closed;
+  private volatile Throwable failure;
+
+  PrefetchingGenerator(Class<T> targetType, LongFunction<Object> supplier, int capacity,
+                       int threads) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    if (threads <= 0) {
+      throw new IllegalArgumentException("threads must be positive");
+    }
+    this.targetType = targetType;
+    this.supplier = supplier;
+    this.ring = new ReadyRing<>(capacity);
+    this.workers = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      Thread worker = new Thread(this::produce,
+          "objectmocker-prefetch-" + targetType.getSimpleName() + "-" + i);
+      worker.setDaemon(true);
+      workers[i] = worker;
+    }
+    for (Thread worker : workers) {
+      worker.start();
+    }
+  }
+
+  public Class<T> getTargetType() {
+    return targetType;
+  }
+
+  private void produce() {
+    try {
+      while (!closed) {
+        Object target = supplier.apply(nextIndex.getAndIncrement());
+        for (int idle = 0; !ring.offer(target); idle++) {
+          if (closed) {
+            return;
+          }
+          backoff(idle);
+        }
+      }
+    } catch (Throwable e) {
+      failure = e;
+      closed = true;
+    }
+  }
+
+  /**
+   * Take a ready object, waiting until a worker has generated one.
+   * @return generated object
+   * @throws GeneratorException if generator has been closed, a worker failed,
+   *     or current thread is interrupted while waiting
+   */
+  public T take() {
+    for (int idle = 0; ; idle++) {
+      Object target = ring.poll();
+      if (target != null) {
+        return targetType.cast(target);
+      }
+      if (closed) {
+        throw closedException();
+      }
+      if (Thread.interrupted()) {
+        Thread.currentThread().interrupt();
+        throw new GeneratorException("Interrupted while waiting for prefetched %s.",
+            targetType.getSimpleName());
+      }
+      backoff(idle);
+    }
+  }
+
+  /**
+   * Take a ready object without waiting.
+   * @return generated object, or null if no object is ready
+   * @throws GeneratorException if generator has been closed or a worker failed,
+   *     and no object is ready
+   */
+  public T poll() {
+    Object target = ring.poll();
+    if (target == null && closed) {
+      throw closedException();
+    }
+    return targetType.cast(target);
+  }
+
+  /**
+   * Number of ready objects.
+   * @return approximate number
+   */
+  public int ready() {
+    return ring.size();
+  }
+
+  private GeneratorException closedException() {
+    Throwable cause = failure;
+    return cause != null
+        ? new GeneratorException(cause, "Failed to prefetch %s.", targetType.getSimpleName())
+        : new GeneratorException("PrefetchingGenerator of %s has been closed.",
+            targetType.getSimpleName());
+  }
+
+  private static void backoff(int idle) {
+    if (idle < SPINS) {
+      return;
+    }
+    if (idle < SPINS + YIELDS) {
+      Thread.yield();
+    } else {
+      LockSupport.parkNanos(PARK_NANOS);
+    }
+  }
+
+  /**
+   * Stop workers and wait for them to exit, ready objects are discarded.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    boolean interrupted = false;
+    for (Thread worker : workers) {
+      LockSupport.unpark(worker);
+      while (worker.isAlive()) {
+        try {
+          worker.join();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+    while (ring.poll() != null) {
+      // drop references to ready objects
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package org.luncert.objectmocker.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ReadyRing, bounded lock-free multi-producer multi-consumer queue after Dmitry Vyukov's
+ * design. Every cell carries a sequence number telling whether it is ready to be written
+ * or read at a given position, so producers and consumers only contend on their own cursor
+ * and never block each other.
+ * @author Luncert
+ * @param <E> element type.
+ */
+final class ReadyRing<E> {
+
+  // largest power of 2 an int could hold
+  static final int MAX_CAPACITY = 1 << 30;
+
+  private final Object[] buffer;
+  private final AtomicLongArray sequences;
+  private final int mask;
+  private final AtomicLong enqueuePos = new AtomicLong();
+  private final AtomicLong dequeuePos = new AtomicLong();
+
+  /**
+   * Create a ring holding at least capacity elements, capacity is rounded up to a power of 2.
+   * @param capacity min capacity, at most {@link #MAX_CAPACITY}
+   */
+  ReadyRing(int capacity) {
+    if (capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException("capacity must not be greater than " + MAX_CAPACITY);
+    }
+    int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    buffer = new Object[size];
+    sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+    mask = size - 1;
+  }
+
+  int capacity() {
+    return buffer.length;
+  }
+
+  /**
+   * Add element if the ring isn't full.
+   * @param element element, not null
+   * @return false if the ring is full
+   */
+  boolean offer(E element) {
+    long pos = enqueuePos.get();
+    while (true) {
+      int index = (int) pos & mask;
+      long diff = sequences.get(index) - pos;
+      if (diff == 0) {
+        if (enqueuePos.compareAndSet(pos, pos + 1)) {
+          buffer[index] = element;
+          // publish element, a consumer reading the sequence sees it
+          sequences.lazySet(index, pos + 1);
+          return true;
+        }
+        pos = enqueuePos.get();
+      } else if (diff < 0) {
+        // cell hasn't been consumed since the previous lap
+        return false;
+      } else {
+        pos = enqueuePos.get();
+      }
+    }
+  }
+
+  /**
+   * Remove the oldest element if there is any.
+   * @return element, or null if the ring is empty
+   */
+  @SuppressWarnings("unchecked")
+  E poll() {
+    long pos = dequeuePos.get();
+    while (true) {
+      int index = (int) pos & mask;
+      long diff = sequences.get(index) - (pos + 1);
+      if (diff == 0) {
+        if (dequeuePos.compareAndSet(pos, pos + 1)) {
+          E element = (E) buffer[index];
+          buffer[index] = null;
+          // release cell for the producer of next lap
+          sequences.lazySet(index, pos + mask + 1);
+          return element;
+        }
+        pos = dequeuePos.get();
+      } else if (diff < 0) {
+        // cell hasn't been written in this lap
+        return null;
+      } else {
+        pos = dequeuePos.get();
+      }
+    }
+  }
+
+  /**
+   * Approximate number of elements, exact if there is no concurrent modification.
+   * @return size
+   */
+  int size() {
+    long size = enqueuePos.get() - dequeuePos.get();
+    return (int) Math.max(0, Math.min(size, buffer.length));
+  }
+}
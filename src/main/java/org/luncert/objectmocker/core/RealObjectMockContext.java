@@ -15,13 +15,22 @@ import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.ServiceLoader;
 import java.util.UUID;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.luncert.objectmocker.exception.GeneratorException;
+import org.luncert.objectmocker.random.RandomSource;
 
 /**
  * RealObjectMockContext.
@@ -32,7 +41,8 @@ public final class RealObjectMockContext implements ObjectMockContext {
   // default Config of field level generators.
 
   private static final int DEFAULT_STRING_LENGTH = 8;
-  static final int DEFAULT_LIST_SIZE = 8;
+  static final int DEFAULT_COLLECTION_SIZE = 8;
+  static final int DEFAULT_ARRAY_LENGTH = 8;
 
   /**
    * default Integer Type range.
@@ -76,35 +86,255 @@ public final class RealObjectMockContext implements ObjectMockContext {
         .build();
   }
 
-  private final Map<Class, ObjectGenerator> generators = new HashMap<>();
+  /**
+   * GeneratedObjectGenerators emitted by objectmocker-processor, loaded once on first use.
+   */
+  private static final class GeneratedGenerators {
+
+    static final Map<Class, GeneratedObjectGenerator> INSTANCES = load();
+
+    private static Map<Class, GeneratedObjectGenerator> load() {
+      Map<Class, GeneratedObjectGenerator> instances = new HashMap<>();
+      for (GeneratedObjectGenerator generator
+          : ServiceLoader.load(GeneratedObjectGenerator.class)) {
+        instances.put(generator.getTargetType(), generator);
+      }
+      return ImmutableMap.copyOf(instances);
+    }
+  }
+
+  // immutable and shared with copies, replaced as a whole on modification so reads take no lock
+  private volatile GeneratorRegistry generators = GeneratorRegistry.EMPTY;
+
+  private RandomSource randomSource = RandomSource.threadLocal();
+
+  private boolean seeded;
+  private long seed;
+
+  private GraphLimits graphLimits = GraphLimits.DEFAULT;
+
+  /**
+   * Random state of one generating thread.
+   */
+  private static final class LocalRandom {
+    // split from randomSource, if it is not thread safe
+    RandomSource split;
+    // derived from index of the object being generated in seeded mode
+    RandomSource indexed;
+  }
+
+  private final ThreadLocal<LocalRandom> localRandom = ThreadLocal.withInitial(LocalRandom::new);
+
+  /**
+   * Set RandomSource used by generators, thread unsafe source will be split for each thread.
+   * @param randomSource RandomSource
+   */
+  public void setRandomSource(RandomSource randomSource) {
+    this.randomSource = Objects.requireNonNull(randomSource);
+  }
+
+  /**
+   * Enable seeded mode, the i-th object of bulk generation then only depends on seed,
+   * its type and i, and could be reproduced with {@link #generateAt}.
+   * @param seed context seed
+   */
+  public void setSeed(long seed) {
+    this.seeded = true;
+    this.seed = seed;
+    this.randomSource = RandomSource.xoshiro256StarStar(seed);
+  }
+
+  /**
+   * Set max depth of generated object graph, nested objects deeper than it are assigned null.
+   * @param maxDepth max depth, root object is at depth 0
+   */
+  public void setMaxDepth(int maxDepth) {
+    graphLimits = graphLimits.withMaxDepth(maxDepth);
+  }
+
+  /**
+   * Set what to assign when a nested object has the same type as one of its ancestors.
+   * @param cyclePolicy CyclePolicy
+   */
+  public void setCyclePolicy(CyclePolicy cyclePolicy) {
+    graphLimits = graphLimits.withCyclePolicy(cyclePolicy);
+  }
+
+  /**
+   * Set max number of objects generated for one root object, exceeding it fails the generation.
+   * @param maxObjects max number of objects
+   */
+  public void setMaxObjects(long maxObjects) {
+    graphLimits = graphLimits.withMaxObjects(maxObjects);
+  }
+
+  GraphLimits getGraphLimits() {
+    return graphLimits;
+  }
+
+  @Override
+  public RandomSource getRandomSource() {
+    RandomSource source = randomSource;
+    if (!seeded && source.isThreadSafe()) {
+      return source;
+    }
+    LocalRandom local = localRandom.get();
+    if (local.indexed != null) {
+      return local.indexed;
+    }
+    if (source.isThreadSafe()) {
+      return source;
+    }
+    if (local.split == null) {
+      local.split = splitRandomSource();
+    }
+    return local.split;
+  }
+
+  private RandomSource splitRandomSource() {
+    RandomSource source = randomSource;
+    // source may be shared with copies of this context
+    synchronized (source) {
+      return source.split();
+    }
+  }
+
+  @Override
+  public boolean isSeeded() {
+    return seeded;
+  }
+
+  @Override
+  public <T> T detached(String key, Supplier<T> supplier) {
+    if (!seeded) {
+      return supplier.get();
+    }
+    LocalRandom local = localRandom.get();
+    RandomSource previous = local.indexed;
+    // salted, so it never equals the source of an indexed object of type named key
+    local.indexed = RandomSource.xoshiro256StarStar(mix64(~seed ^ hash64(key)));
+    try {
+      return supplier.get();
+    } finally {
+      local.indexed = previous;
+    }
+  }
+
+  /**
+   * Bind object supplier with index of generated object, in seeded mode each object is generated
+   * with a RandomSource derived from (seed, type, index).
+   * @param clazz target class
+   * @param supplier object supplier
+   * @return indexed object supplier
+   */
+  LongFunction<Object> indexed(Class<?> clazz, Supplier<Object> supplier) {
+    if (!seeded) {
+      return index -> supplier.get();
+    }
+    long typeSeed = mix64(seed ^ hash64(clazz.getName()));
+    return index -> {
+      LocalRandom local = localRandom.get();
+      RandomSource previous = local.indexed;
+      local.indexed = RandomSource.xoshiro256StarStar(mix64(typeSeed + index));
+      try {
+        return supplier.get();
+      } finally {
+        local.indexed = previous;
+      }
+    };
+  }
+
+  /**
+   * String.hashCode widened to 64 bits, it is stable across JVMs.
+   */
+  private static long hash64(String value) {
+    long h = 1125899906842597L;
+    for (int i = 0; i < value.length(); i++) {
+      h = 31 * h + value.charAt(i);
+    }
+    return h;
+  }
+
+  /**
+   * Variant 13 of Stafford's 64-bit mixing function.
+   */
+  private static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
 
   @Override
-  public void register(ObjectGenerator objectGenerator) {
+  public synchronized void register(ObjectGenerator objectGenerator) {
     Objects.requireNonNull(objectGenerator);
     Class<?> targetClazz = objectGenerator.getTargetType();
-    if (generators.containsKey(targetClazz)) {
+    GeneratorRegistry current = generators;
+    if (current.get(targetClazz) != null) {
       throw new GeneratorException("One ObjectGenerator has been registered for target class: "
           + targetClazz.getName());
     }
     objectGenerator.setObjectMockContext(this);
-    generators.put(targetClazz, objectGenerator);
+    generators = current.with(targetClazz, objectGenerator);
   }
 
   @Override
   public boolean hasGeneratorFor(Class<?> clazz) {
-    return generators.containsKey(clazz);
+    return generators.get(clazz) != null;
+  }
+
+  /**
+   * Find registered generator of target class. If it is shared with the context owning it and
+   * has been modified in place there since, a copy of the configuration pinned in this context
+   * replaces it.
+   * @return ObjectGenerator, or null if no generator is registered for target class
+   */
+  private ObjectGenerator lookup(Class<?> clazz) {
+    GeneratorRegistry.Entry entry = generators.get(clazz);
+    if (entry == null) {
+      return null;
+    }
+    ObjectGenerator generator = entry.getGenerator();
+    return entry.isCurrent() || generator.getObjectMockContext() == this
+        ? generator : detach(clazz);
+  }
+
+  private synchronized ObjectGenerator detach(Class<?> clazz) {
+    GeneratorRegistry current = generators;
+    GeneratorRegistry.Entry entry = current.get(clazz);
+    if (entry.isCurrent() || entry.getGenerator().getObjectMockContext() == this) {
+      return entry.getGenerator();
+    }
+    ObjectGenerator copy = entry.getGenerator().copy(this, entry.getConfig());
+    generators = current.with(clazz, copy);
+    return copy;
+  }
+
+  ObjectGenerator getObjectGenerator(Class<?> clazz) {
+    ObjectGenerator generator = lookup(clazz);
+    if (generator == null) {
+      throw new GeneratorException("No basic generator registered for class "
+          + clazz.getSimpleName());
+    }
+    return generator;
   }
 
   @Override
   public <T> T generate(Class<T> clazz, String... tmpIgnores) {
     Object target;
-    ObjectGenerator generator = generators.get(clazz);
+    ObjectGenerator generator = lookup(clazz);
     if (generator != null) {
-      target = generator.generate(tmpIgnores);
+      // prefer generated code if registered generator hasn't been customized
+      GeneratedObjectGenerator<?> generated = tmpIgnores.length == 0 && !generator.isCustomized()
+          ? GeneratedGenerators.INSTANCES.get(clazz) : null;
+      target = generated != null
+          ? GraphGeneration.generate(this, clazz, generated) : generator.generate(this, tmpIgnores);
     } else {
       AbstractGenerator<?> builtinGenerator = BUILTIN_GENERATORS.get(clazz);
       if (builtinGenerator != null) {
-        target = builtinGenerator.generate(clazz);
+        target = builtinGenerator.generate(this, clazz);
+      } else if (clazz.isArray()) {
+        Class<?> componentType = clazz.getComponentType();
+        target = ValueSuppliers.defaultArrayGenerator(componentType).generate(this, componentType);
       } else {
         throw new GeneratorException("No generator registered for class %s.",
             clazz.getSimpleName());
@@ -113,20 +343,164 @@ public final class RealObjectMockContext implements ObjectMockContext {
     return clazz.cast(target);
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T refill(T instance, String... tmpIgnores) {
+    Objects.requireNonNull(instance);
+    return (T) getObjectGenerator(instance.getClass()).refill(this, instance, tmpIgnores);
+  }
+
+  @Override
+  public <T> ObjectPool<T> pool(Class<T> clazz, int capacity, String... tmpIgnores) {
+    ObjectGenerator generator = getObjectGenerator(clazz);
+    return new ObjectPool<>(clazz, generator.bind(this, tmpIgnores),
+        generator.bindRefill(this, tmpIgnores), capacity);
+  }
+
+  @Override
+  public <T> T generate(Class<T> clazz, IgnoreProfile profile) {
+    Objects.requireNonNull(profile);
+    ObjectGenerator generator = getObjectGenerator(clazz);
+    GeneratedObjectGenerator<?> generated = profile.isEmpty() && !generator.isCustomized()
+        ? GeneratedGenerators.INSTANCES.get(clazz) : null;
+    return clazz.cast(generated != null
+        ? GraphGeneration.generate(this, clazz, generated) : generator.generate(this, profile));
+  }
+
+  @Override
+  public <T> List<T> generateMany(Class<T> clazz, int n, String... tmpIgnores) {
+    checkCount(n);
+    return fill(clazz, n, bind(clazz, tmpIgnores), new ArrayList<>(n));
+  }
+
+  @Override
+  public <T, C extends Collection<? super T>> C generateMany(Class<T> clazz, int n,
+                                                             C collection,
+                                                             String... tmpIgnores) {
+    checkCount(n);
+    Objects.requireNonNull(collection);
+    return fill(clazz, n, bind(clazz, tmpIgnores), collection);
+  }
+
+  @Override
+  public <T> T[] generateMany(Class<T> clazz, T[] array, String... tmpIgnores) {
+    return fill(clazz, bind(clazz, tmpIgnores), array);
+  }
+
+  @Override
+  public <T> T generateAt(Class<T> clazz, long index, String... tmpIgnores) {
+    checkIndex(index);
+    return clazz.cast(bind(clazz, tmpIgnores).apply(index));
+  }
+
+  void checkIndex(long index) {
+    if (!seeded) {
+      throw new GeneratorException("generateAt is only supported by seeded context.");
+    }
+    if (index < 0) {
+      throw new IllegalArgumentException("index must not be negative");
+    }
+  }
+
+  /**
+   * Resolve how to generate target class once, used by bulk generation.
+   * @param clazz target class
+   * @param tmpIgnores ignore specified fields
+   * @return object supplier accepting index of object
+   */
+  LongFunction<Object> bind(Class<?> clazz, String... tmpIgnores) {
+    return indexed(clazz, resolve(clazz, tmpIgnores));
+  }
+
+  private Supplier<Object> resolve(Class<?> clazz, String... tmpIgnores) {
+    ObjectGenerator generator = lookup(clazz);
+    if (generator != null) {
+      // prefer generated code if registered generator hasn't been customized
+      GeneratedObjectGenerator<?> generated = tmpIgnores.length == 0 && !generator.isCustomized()
+          ? GeneratedGenerators.INSTANCES.get(clazz) : null;
+      return generated != null
+          ? () -> GraphGeneration.generate(this, clazz, generated)
+          : generator.bind(this, tmpIgnores);
+    }
+    AbstractGenerator<?> builtinGenerator = BUILTIN_GENERATORS.get(clazz);
+    if (builtinGenerator != null) {
+      return () -> builtinGenerator.generate(this, clazz);
+    }
+    throw new GeneratorException("No generator registered for class %s.",
+        clazz.getSimpleName());
+  }
+
+  static void checkCount(long n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("n must not be negative");
+    }
+  }
+
+  static <T, C extends Collection<? super T>> C fill(Class<T> clazz, int n,
+                                                     LongFunction<Object> supplier,
+                                                     C collection) {
+    if (collection instanceof ArrayList) {
+      ((ArrayList<?>) collection).ensureCapacity(collection.size() + n);
+    }
+    for (int i = 0; i < n; i++) {
+      collection.add(clazz.cast(supplier.apply(i)));
+    }
+    return collection;
+  }
+
+  static <T> T[] fill(Class<T> clazz, LongFunction<Object> supplier, T[] array) {
+    for (int i = 0; i < array.length; i++) {
+      array[i] = clazz.cast(supplier.apply(i));
+    }
+    return array;
+  }
+
+  @Override
+  public <T> T[] generateParallel(Class<T> clazz, int n, int parallelism,
+                                  String... tmpIgnores) {
+    checkCount(n);
+    return ParallelFill.invoke(clazz, n, parallelism, bind(clazz, tmpIgnores));
+  }
+
+  @Override
+  public <T> PrefetchingGenerator<T> prefetching(Class<T> clazz, int capacity, int threads,
+                                                 String... tmpIgnores) {
+    return new PrefetchingGenerator<>(clazz, bind(clazz, tmpIgnores), capacity, threads);
+  }
+
+  @Override
+  public <T> Stream<T> stream(Class<T> clazz, String... tmpIgnores) {
+    return StreamSupport.stream(
+        GeneratingSpliterator.infinite(clazz, bind(clazz, tmpIgnores)), false);
+  }
+
+  @Override
+  public <T> Stream<T> stream(Class<T> clazz, long size, String... tmpIgnores) {
+    return StreamSupport.stream(
+        GeneratingSpliterator.sized(clazz, bind(clazz, tmpIgnores), size), false);
+  }
+
   @Override
   public <T> T generate(Class<T> clazz, ObjectGeneratorExtender extender,
                         String...tmpIgnores) {
-    ObjectGenerator generator = generators.get(clazz);
-    if (generator == null) {
-      throw new GeneratorException("No basic generator registered for class "
-          + clazz.getSimpleName());
-    }
+    ObjectGenerator generator = getObjectGenerator(clazz);
     try {
       generator = extender.extendObjectGenerator(generator);
     } catch (Exception e) {
       throw new GeneratorException(e);
     }
-    return clazz.cast(generator.generate(tmpIgnores));
+    return clazz.cast(generator.generate(this, tmpIgnores));
+  }
+
+  @Override
+  public <T> DerivedObjectGenerator<T> derive(Class<T> clazz, ObjectGeneratorExtender extender) {
+    Objects.requireNonNull(extender);
+    return new DerivedObjectGenerator<>(this, clazz, extender);
+  }
+
+  @Override
+  public <T> VariantGenerator<T> variants(Class<T> clazz, String... mutableFields) {
+    return new VariantGenerator<>(this, getObjectGenerator(clazz), clazz, mutableFields);
   }
 
   @Override
@@ -147,9 +521,9 @@ public final class RealObjectMockContext implements ObjectMockContext {
   @Override
   @Deprecated
   public <T> T generate(Class<T> clazz, Map<String, Object> baseData) throws IOException {
-    ObjectGenerator generator = generators.get(clazz);
+    ObjectGenerator generator = lookup(clazz);
     if (generator != null) {
-      return clazz.cast(generator.generate(baseData));
+      return clazz.cast(generator.generate(this, baseData));
     } else {
       throw new GeneratorException("No generator registered for class %s.",
           clazz.getSimpleName());
@@ -157,27 +531,52 @@ public final class RealObjectMockContext implements ObjectMockContext {
   }
 
   @Override
-  public void modifyObjectGenerator(Class<?> clazz, ObjectGeneratorModifier modifier)
+  public synchronized void modifyObjectGenerator(Class<?> clazz, ObjectGeneratorModifier modifier)
       throws Exception {
     Objects.requireNonNull(clazz, "null-pointer parameter");
-    ObjectGenerator generator = generators.get(clazz);
+    ObjectGenerator generator = lookup(clazz);
     if (generator == null) {
       throw new GeneratorException("No ObjectGenerator registered for class %s.", clazz.getName());
     }
-    modifier.accept(generator);
+    // copy on write, generator may be shared with copies of this context
+    generators = generators.with(clazz, generator.modified(this, modifier));
   }
 
   @Override
   public ObjectMockContext copy() {
     RealObjectMockContext ctx = new RealObjectMockContext();
-    for (Map.Entry<Class, ObjectGenerator> entry : this.generators.entrySet()) {
-      ObjectGenerator generator = entry.getValue().copy();
-      generator.setObjectMockContext(ctx);
-      ctx.generators.put(generator.getTargetType(), generator);
-    }
+    // derive source of the copy without drawing from this one
+    ctx.randomSource = seeded ? RandomSource.xoshiro256StarStar(seed) : randomSource;
+    ctx.seeded = seeded;
+    ctx.seed = seed;
+    ctx.graphLimits = graphLimits;
+    // generators are shared until either context modifies them
+    ctx.generators = generators;
     return ctx;
   }
 
+  /**
+   * Pin current configuration of a generator owned by this context after it has been modified
+   * in place, e.g. with {@link ObjectGenerator#addIgnores(String...)}. Contexts copied from this
+   * one keep the configuration pinned when they were copied.
+   * @param generator ObjectGenerator modified in place
+   */
+  void repin(ObjectGenerator generator) {
+    Class<?> clazz = generator.getTargetType();
+    // generators being built by modifiers are never registered, don't lock for them
+    GeneratorRegistry.Entry entry = generators.get(clazz);
+    if (entry == null || entry.getGenerator() != generator) {
+      return;
+    }
+    synchronized (this) {
+      GeneratorRegistry current = generators;
+      entry = current.get(clazz);
+      if (entry != null && entry.getGenerator() == generator && !entry.isCurrent()) {
+        generators = current.with(clazz, generator);
+      }
+    }
+  }
+
   @Override
   public ObjectMockContext createVirtualContext() {
     return new VirtualObjectMockContext(this);
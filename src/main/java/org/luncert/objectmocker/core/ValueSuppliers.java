@@ -0,0 +1,434 @@
+package org.luncert.objectmocker.core;
+
+import static org.luncert.objectmocker.builtingenerator.BuiltinGeneratorBuilder.arrayGenerator;
+import static org.luncert.objectmocker.core.RealObjectMockContext.BUILTIN_GENERATORS;
+import static org.luncert.objectmocker.core.RealObjectMockContext.DEFAULT_ARRAY_LENGTH;
+import static org.luncert.objectmocker.core.RealObjectMockContext.DEFAULT_COLLECTION_SIZE;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntFunction;
+
+import org.luncert.objectmocker.exception.GeneratorException;
+
+/**
+ * ValueSuppliers, compiles the generic type of a field into an ObjectSupplier when the
+ * GenerationPlan is compiled. Type variables are resolved against the target type, nested
+ * collections, maps and optionals are generated from the resolved type tree, and containers
+ * are allocated at their exact size. Nested objects and containers additionally get a
+ * {@link ValueRecycler}, used to refill a previously generated value in place.
+ * @author Luncert
+ */
+final class ValueSuppliers {
+
+  private static final Map<Class<?>, IntFunction<Collection<Object>>> COLLECTION_FACTORIES =
+      ImmutableMap.<Class<?>, IntFunction<Collection<Object>>>builder()
+          .put(Collection.class, ArrayList::new)
+          .put(List.class, ArrayList::new)
+          .put(ArrayList.class, ArrayList::new)
+          .put(LinkedList.class, n -> new LinkedList<>())
+          .put(Set.class, n -> new HashSet<>(hashCapacity(n)))
+          .put(HashSet.class, n -> new HashSet<>(hashCapacity(n)))
+          .put(LinkedHashSet.class, n -> new LinkedHashSet<>(hashCapacity(n)))
+          .put(SortedSet.class, n -> new TreeSet<>())
+          .put(NavigableSet.class, n -> new TreeSet<>())
+          .put(TreeSet.class, n -> new TreeSet<>())
+          .put(Queue.class, ArrayDeque::new)
+          .put(Deque.class, ArrayDeque::new)
+          .put(ArrayDeque.class, ArrayDeque::new)
+          .build();
+
+  private static final Map<Class<?>, IntFunction<Map<Object, Object>>> MAP_FACTORIES =
+      ImmutableMap.<Class<?>, IntFunction<Map<Object, Object>>>builder()
+          .put(Map.class, n -> new HashMap<>(hashCapacity(n)))
+          .put(HashMap.class, n -> new HashMap<>(hashCapacity(n)))
+          .put(LinkedHashMap.class, n -> new LinkedHashMap<>(hashCapacity(n)))
+          .put(SortedMap.class, n -> new TreeMap<>())
+          .put(NavigableMap.class, n -> new TreeMap<>())
+          .put(TreeMap.class, n -> new TreeMap<>())
+          .put(ConcurrentMap.class, n -> new ConcurrentHashMap<>(hashCapacity(n)))
+          .put(ConcurrentHashMap.class, n -> new ConcurrentHashMap<>(hashCapacity(n)))
+          .build();
+
+  private ValueSuppliers() {
+  }
+
+  /**
+   * ValueRecycler, generates a new value for a field by overwriting its current value in place
+   * if the current value has the expected shape, otherwise a new value is generated.
+   */
+  @FunctionalInterface
+  interface ValueRecycler {
+
+    Object recycle(ObjectMockContext context, Object current);
+  }
+
+  /**
+   * Collect type arguments bound to type variables of target type's super classes.
+   * @param targetType target type
+   * @return mapping from type variable to its actual type argument
+   */
+  static Map<TypeVariable<?>, Type> bindings(Class<?> targetType) {
+    Map<TypeVariable<?>, Type> bindings = new HashMap<>();
+    Class<?> clazz = targetType;
+    while (clazz.getSuperclass() != null) {
+      Type superType = clazz.getGenericSuperclass();
+      if (superType instanceof ParameterizedType) {
+        Type[] args = ((ParameterizedType) superType).getActualTypeArguments();
+        TypeVariable<?>[] params = clazz.getSuperclass().getTypeParameters();
+        for (int i = 0; i < params.length; i++) {
+          bindings.put(params[i], resolve(args[i], bindings));
+        }
+      }
+      clazz = clazz.getSuperclass();
+    }
+    return bindings;
+  }
+
+  /**
+   * Resolve type variable and wildcard at top level of type, type variable not bound by
+   * target type is resolved to its first bound. Array of resolved class becomes a class.
+   * @param type type
+   * @param bindings type variable bindings of target type
+   * @return class, parameterized type or generic array type
+   */
+  static Type resolve(Type type, Map<TypeVariable<?>, Type> bindings) {
+    if (type instanceof TypeVariable) {
+      Type bound = bindings.get(type);
+      return bound != null ? bound : resolve(((TypeVariable<?>) type).getBounds()[0], bindings);
+    } else if (type instanceof WildcardType) {
+      return resolve(((WildcardType) type).getUpperBounds()[0], bindings);
+    } else if (type instanceof GenericArrayType) {
+      Type componentType = resolve(((GenericArrayType) type).getGenericComponentType(), bindings);
+      if (componentType instanceof Class) {
+        return Array.newInstance((Class<?>) componentType, 0).getClass();
+      }
+    }
+    return type;
+  }
+
+  /**
+   * Erase resolved type to its class.
+   * @param type resolved type
+   * @return class
+   */
+  static Class<?> erase(Type type) {
+    if (type instanceof Class) {
+      return (Class<?>) type;
+    } else if (type instanceof ParameterizedType) {
+      return (Class<?>) ((ParameterizedType) type).getRawType();
+    } else if (type instanceof GenericArrayType) {
+      Class<?> componentType = erase(((GenericArrayType) type).getGenericComponentType());
+      return Array.newInstance(componentType, 0).getClass();
+    }
+    return Object.class;
+  }
+
+  /**
+   * Compile an ObjectSupplier generating values of type. The returned supplier ignores its
+   * class parameter, all type information is resolved here.
+   * @param type generic type
+   * @param bindings type variable bindings of target type
+   * @return ObjectSupplier
+   */
+  static ObjectSupplier<Object> compile(Type type, Map<TypeVariable<?>, Type> bindings) {
+    Type resolved = resolve(type, bindings);
+    Class<?> clazz = erase(resolved);
+    if (resolved instanceof ParameterizedType) {
+      Type[] args = ((ParameterizedType) resolved).getActualTypeArguments();
+      if (Optional.class.equals(clazz)) {
+        ObjectSupplier<Object> valueSupplier = compile(args[0], bindings);
+        return (ctx, c) -> Optional.ofNullable(valueSupplier.getObject(ctx, null));
+      }
+      IntFunction<Collection<Object>> collectionFactory = COLLECTION_FACTORIES.get(clazz);
+      if (collectionFactory != null) {
+        return collectionSupplier(collectionFactory,
+            elementSupplier(collectionFactory, args[0], bindings));
+      }
+      IntFunction<Map<Object, Object>> mapFactory = MAP_FACTORIES.get(clazz);
+      if (mapFactory != null) {
+        return mapSupplier(mapFactory, keySupplier(mapFactory, args[0], bindings),
+            compile(args[1], bindings));
+      }
+    } else if (resolved instanceof GenericArrayType) {
+      Class<?> componentType = clazz.getComponentType();
+      AbstractGenerator<?> generator = arrayGenerator(DEFAULT_ARRAY_LENGTH,
+          compile(((GenericArrayType) resolved).getGenericComponentType(), bindings));
+      return (ctx, c) -> generator.generate(ctx, componentType);
+    } else if (COLLECTION_FACTORIES.containsKey(clazz) || MAP_FACTORIES.containsKey(clazz)
+        || Optional.class.equals(clazz)) {
+      return (ctx, c) -> {
+        throw new GeneratorException("Couldn't determine element type of raw type %s.",
+            clazz.getName());
+      };
+    }
+    return classSupplier(clazz);
+  }
+
+  /**
+   * Compile a ValueRecycler for values of type. Nested objects are refilled with their
+   * registered generator, lists of the default size are refilled element by element, other
+   * collections and maps are cleared and filled again.
+   * @param type generic type
+   * @param bindings type variable bindings of target type
+   * @return ValueRecycler, or null if values of type are immutable or never reused
+   */
+  static ValueRecycler recycler(Type type, Map<TypeVariable<?>, Type> bindings) {
+    Type resolved = resolve(type, bindings);
+    Class<?> clazz = erase(resolved);
+    if (resolved instanceof ParameterizedType) {
+      Type[] args = ((ParameterizedType) resolved).getActualTypeArguments();
+      IntFunction<Collection<Object>> collectionFactory = COLLECTION_FACTORIES.get(clazz);
+      if (collectionFactory != null) {
+        return collectionRecycler(collectionFactory,
+            elementSupplier(collectionFactory, args[0], bindings), recycler(args[0], bindings));
+      }
+      IntFunction<Map<Object, Object>> mapFactory = MAP_FACTORIES.get(clazz);
+      if (mapFactory != null) {
+        return mapRecycler(mapFactory, keySupplier(mapFactory, args[0], bindings),
+            compile(args[1], bindings));
+      }
+      return null;
+    } else if (!(resolved instanceof Class) || BUILTIN_GENERATORS.containsKey(clazz)
+        || clazz.isEnum() || clazz.isArray() || clazz.isInterface()
+        || COLLECTION_FACTORIES.containsKey(clazz) || MAP_FACTORIES.containsKey(clazz)
+        || Optional.class.equals(clazz)) {
+      return null;
+    }
+    return (ctx, current) -> current != null && current.getClass() == clazz
+        ? GraphGeneration.refillNested(ctx, current) : GraphGeneration.generateNested(ctx, clazz);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ObjectSupplier<Object> classSupplier(Class<?> clazz) {
+    AbstractGenerator builtinGenerator = BUILTIN_GENERATORS.get(clazz);
+    if (builtinGenerator != null) {
+      return (ctx, c) -> builtinGenerator.generate(ctx, clazz);
+    } else if (clazz.isEnum()) {
+      return enumSupplier(clazz);
+    } else if (clazz.isArray()) {
+      Class<?> componentType = clazz.getComponentType();
+      AbstractGenerator<?> generator = defaultArrayGenerator(componentType);
+      return (ctx, c) -> generator.generate(ctx, componentType);
+    }
+    return (ctx, c) -> GraphGeneration.generateNested(ctx, clazz);
+  }
+
+  /**
+   * Select ArrayGenerator of default length for component type, elements of builtin types
+   * are generated with the builtin generator of their type, nested objects are filled after
+   * the array like nested objects of fields.
+   * @param componentType component type of array
+   * @return ArrayGenerator
+   */
+  static AbstractGenerator<?> defaultArrayGenerator(Class<?> componentType) {
+    AbstractGenerator<?> builtinGenerator = BUILTIN_GENERATORS.get(componentType);
+    if (builtinGenerator != null) {
+      return arrayGenerator(DEFAULT_ARRAY_LENGTH, builtinGenerator);
+    } else if (componentType.isPrimitive()) {
+      return arrayGenerator(DEFAULT_ARRAY_LENGTH);
+    }
+    return arrayGenerator(DEFAULT_ARRAY_LENGTH, classSupplier(componentType));
+  }
+
+  static ObjectSupplier<Object> enumSupplier(Class<?> type) {
+    Object[] enumValues = type.getEnumConstants();
+    // cannot generate value with empty enum
+    if (enumValues.length == 0) {
+      return (ctx, clazz) -> {
+        throw new GeneratorException("Couldn't generate a value with empty enum"
+            + type.getSimpleName() + ".");
+      };
+    }
+    return (ctx, clazz) -> enumValues[AbstractGenerator.random(ctx).nextInt(enumValues.length)];
+  }
+
+  /**
+   * Compile supplier of collection elements, elements of a set are filled before being
+   * returned, as they are hashed or compared when added.
+   * @throws GeneratorException if elements of a sorted set are not Comparable
+   */
+  private static ObjectSupplier<Object> elementSupplier(IntFunction<Collection<Object>> factory,
+                                                        Type elemType,
+                                                        Map<TypeVariable<?>, Type> bindings) {
+    Collection<Object> sample = factory.apply(0);
+    if (sample instanceof SortedSet) {
+      checkComparable(sample, elemType, bindings);
+    }
+    ObjectSupplier<Object> elemSupplier = compile(elemType, bindings);
+    return sample instanceof Set ? filled(elemSupplier) : elemSupplier;
+  }
+
+  /**
+   * Compile supplier of map keys, keys are filled before being returned, as they are
+   * hashed or compared when put.
+   * @throws GeneratorException if keys of a sorted map are not Comparable
+   */
+  private static ObjectSupplier<Object> keySupplier(IntFunction<Map<Object, Object>> factory,
+                                                    Type keyType,
+                                                    Map<TypeVariable<?>, Type> bindings) {
+    Map<Object, Object> sample = factory.apply(0);
+    if (sample instanceof SortedMap) {
+      checkComparable(sample, keyType, bindings);
+    }
+    return filled(compile(keyType, bindings));
+  }
+
+  private static void checkComparable(Object container, Type elemType,
+                                      Map<TypeVariable<?>, Type> bindings) {
+    Class<?> elemClass = erase(resolve(elemType, bindings));
+    if (!Comparable.class.isAssignableFrom(elemClass)) {
+      throw new GeneratorException("Couldn't generate %s of %s, which is not Comparable.",
+          container.getClass().getSimpleName(), elemClass.getName());
+    }
+  }
+
+  /**
+   * Whether collection rejects null elements, e.g. ArrayDeque and TreeSet. Generating an
+   * element may yield null if it is limited by GraphLimits, such elements are skipped.
+   */
+  private static boolean rejectsNull(Collection<Object> collection) {
+    return collection instanceof ArrayDeque || collection instanceof SortedSet;
+  }
+
+  /**
+   * Wrap supplier so that nested objects it returns are completely filled, instead of being
+   * filled after the field has been assigned. Used for set elements and map keys.
+   */
+  private static ObjectSupplier<Object> filled(ObjectSupplier<Object> supplier) {
+    return (ctx, c) -> GraphGeneration.generateFilled(ctx, supplier);
+  }
+
+  private static ObjectSupplier<Object> collectionSupplier(
+      IntFunction<Collection<Object>> factory, ObjectSupplier<Object> elemSupplier) {
+    boolean skipNull = rejectsNull(factory.apply(0));
+    return (ctx, c) ->
+        addElements(ctx, factory.apply(DEFAULT_COLLECTION_SIZE), elemSupplier, skipNull);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ValueRecycler collectionRecycler(IntFunction<Collection<Object>> factory,
+                                                  ObjectSupplier<Object> elemSupplier,
+                                                  ValueRecycler elemRecycler) {
+    Collection<Object> sample = factory.apply(0);
+    Class<?> collectionClass = sample.getClass();
+    boolean skipNull = rejectsNull(sample);
+    return (ctx, current) -> {
+      if (current == null || current.getClass() != collectionClass) {
+        return addElements(ctx, factory.apply(DEFAULT_COLLECTION_SIZE), elemSupplier, skipNull);
+      }
+      if (elemRecycler != null && current instanceof List
+          && ((List<Object>) current).size() == DEFAULT_COLLECTION_SIZE) {
+        // keep positions, so nested elements could be refilled too
+        List<Object> list = (List<Object>) current;
+        for (int i = 0; i < DEFAULT_COLLECTION_SIZE; i++) {
+          list.set(i, elemRecycler.recycle(ctx, list.get(i)));
+        }
+        return list;
+      }
+      Collection<Object> collection = (Collection<Object>) current;
+      collection.clear();
+      return addElements(ctx, collection, elemSupplier, skipNull);
+    };
+  }
+
+  private static Collection<Object> addElements(ObjectMockContext ctx,
+                                                Collection<Object> collection,
+                                                ObjectSupplier<Object> elemSupplier,
+                                                boolean skipNull) {
+    for (int i = 0; i < DEFAULT_COLLECTION_SIZE; i++) {
+      Object elem = elemSupplier.getObject(ctx, null);
+      if (elem != null || !skipNull) {
+        collection.add(elem);
+      }
+    }
+    return collection;
+  }
+
+  private static ObjectSupplier<Object> mapSupplier(IntFunction<Map<Object, Object>> factory,
+                                                    ObjectSupplier<Object> keySupplier,
+                                                    ObjectSupplier<Object> valueSupplier) {
+    Map<Object, Object> sample = factory.apply(0);
+    boolean skipNullKey = sample instanceof SortedMap || sample instanceof ConcurrentMap;
+    boolean skipNullValue = sample instanceof ConcurrentMap;
+    return (ctx, c) -> putEntries(ctx, factory.apply(DEFAULT_COLLECTION_SIZE),
+        keySupplier, valueSupplier, skipNullKey, skipNullValue);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ValueRecycler mapRecycler(IntFunction<Map<Object, Object>> factory,
+                                           ObjectSupplier<Object> keySupplier,
+                                           ObjectSupplier<Object> valueSupplier) {
+    Map<Object, Object> sample = factory.apply(0);
+    Class<?> mapClass = sample.getClass();
+    boolean skipNullKey = sample instanceof SortedMap || sample instanceof ConcurrentMap;
+    boolean skipNullValue = sample instanceof ConcurrentMap;
+    return (ctx, current) -> {
+      if (current == null || current.getClass() != mapClass) {
+        return putEntries(ctx, factory.apply(DEFAULT_COLLECTION_SIZE),
+            keySupplier, valueSupplier, skipNullKey, skipNullValue);
+      }
+      // keys are hashed, so entries can't be refilled in place
+      Map<Object, Object> map = (Map<Object, Object>) current;
+      map.clear();
+      return putEntries(ctx, map, keySupplier, valueSupplier, skipNullKey, skipNullValue);
+    };
+  }
+
+  /**
+   * Put generated entries into map, entries with null key or value are skipped if map
+   * rejects them, e.g. TreeMap and ConcurrentHashMap.
+   */
+  private static Map<Object, Object> putEntries(ObjectMockContext ctx, Map<Object, Object> map,
+                                                ObjectSupplier<Object> keySupplier,
+                                                ObjectSupplier<Object> valueSupplier,
+                                                boolean skipNullKey, boolean skipNullValue) {
+    for (int i = 0; i < DEFAULT_COLLECTION_SIZE; i++) {
+      Object key = keySupplier.getObject(ctx, null);
+      if (key == null && skipNullKey) {
+        continue;
+      }
+      Object value = valueSupplier.getObject(ctx, null);
+      if (value != null || !skipNullValue) {
+        map.put(key, value);
+      }
+    }
+    return map;
+  }
+
+  /**
+   * Initial capacity of hash based container, so that it won't be resized before
+   * holding n entries.
+   */
+  private static int hashCapacity(int n) {
+    return (int) (n / 0.75f) + 1;
+  }
+}
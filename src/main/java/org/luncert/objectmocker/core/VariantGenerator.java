@@ -0,0 +1,166 @@
+package org.luncert.objectmocker.core;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.luncert.objectmocker.exception.GeneratorException;
+
+/**
+ * VariantGenerator, generates a prototype once and creates variants of it by copying its
+ * fields with a compiled {@link FieldCopier}, then regenerating only the mutable fields.
+ * Unchanged nested objects are shared with the prototype, unless {@link #copyingNested()}.
+ * Created by {@link ObjectMockContext#variants(Class, String...)}, modifications made to
+ * the registered ObjectGenerator afterwards don't affect it.
+ * @author Luncert
+ * @param <T> target type for generation.
+ */
+public final class VariantGenerator<T> {
+
+  private final ObjectMockContext context;
+  private final Class<T> targetType;
+  private final GenerationPlan plan;
+  private final T prototype;
+  private final FieldCopier copier;
+  private final FieldSlot[] mutableSlots;
+  // unchanged nested objects copied for each variant
+  private final NestedCopy[] nestedCopies;
+
+  /**
+   * NestedCopy, a nested object of prototype to be copied into each variant.
+   */
+  private static final class NestedCopy {
+
+    private final FieldSlot slot;
+    private final Object source;
+    private final Instantiator instantiator;
+    private final FieldCopier copier;
+
+    private NestedCopy(FieldSlot slot, Object source) {
+      this.slot = slot;
+      this.source = source;
+      this.instantiator = Instantiator.of(source.getClass());
+      this.copier = FieldCopier.of(source.getClass(), Collections.emptySet());
+    }
+
+    private void copyInto(Object variant) {
+      Object nested = instantiator.newInstance();
+      copier.copy(source, nested);
+      slot.set(variant, nested);
+    }
+  }
+
+  VariantGenerator(ObjectMockContext context, ObjectGenerator generator, Class<T> targetType,
+                   String... mutableFields) {
+    this.context = context;
+    this.targetType = targetType;
+    this.plan = generator.getPlan();
+    this.prototype = targetType.cast(generator.generate(context));
+    Set<String> names = new HashSet<>(Arrays.asList(mutableFields));
+    this.copier = FieldCopier.of(targetType, names);
+    this.mutableSlots = resolveSlots(names);
+    this.nestedCopies = new NestedCopy[0];
+  }
+
+  private VariantGenerator(VariantGenerator<T> base, NestedCopy[] nestedCopies) {
+    this.context = base.context;
+    this.targetType = base.targetType;
+    this.plan = base.plan;
+    this.prototype = base.prototype;
+    this.copier = base.copier;
+    this.mutableSlots = base.mutableSlots;
+    this.nestedCopies = nestedCopies;
+  }
+
+  private FieldSlot[] resolveSlots(Set<String> names) {
+    List<FieldSlot> slots = new ArrayList<>(names.size());
+    Set<String> unresolved = new HashSet<>(names);
+    for (FieldSlot slot : plan.getSlots()) {
+      if (names.contains(slot.getName())) {
+        slots.add(slot);
+        unresolved.remove(slot.getName());
+      }
+    }
+    if (!unresolved.isEmpty()) {
+      throw new GeneratorException("Couldn't find writable fields %s in class %s.",
+          unresolved, targetType.getSimpleName());
+    }
+    return slots.toArray(new FieldSlot[0]);
+  }
+
+  /**
+   * Create a VariantGenerator giving each variant its own shallow copy of the unchanged
+   * nested objects of registered types, other values like collections are still shared.
+   * @return VariantGenerator with the same prototype
+   */
+  public VariantGenerator<T> copyingNested() {
+    Set<FieldSlot> mutable = new HashSet<>(Arrays.asList(mutableSlots));
+    List<NestedCopy> copies = new ArrayList<>();
+    for (FieldSlot slot : plan.getSlots()) {
+      Field field = slot.getField();
+      if (mutable.contains(slot) || field.getType().isPrimitive()) {
+        continue;
+      }
+      Object value = read(field);
+      if (value != null && context.hasGeneratorFor(value.getClass())) {
+        copies.add(new NestedCopy(slot, value));
+      }
+    }
+    return new VariantGenerator<>(this, copies.toArray(new NestedCopy[0]));
+  }
+
+  private Object read(Field field) {
+    try {
+      field.setAccessible(true);
+      return field.get(prototype);
+    } catch (IllegalAccessException e) {
+      throw new GeneratorException(e, "Failed to read field %s of prototype.", field.getName());
+    }
+  }
+
+  public Class<T> getTargetType() {
+    return targetType;
+  }
+
+  /**
+   * Get prototype, which must not be modified.
+   * @return prototype
+   */
+  public T getPrototype() {
+    return prototype;
+  }
+
+  /**
+   * Create a variant of prototype with mutable fields regenerated.
+   * @return variant
+   */
+  public T generate() {
+    Object variant = plan.newInstance();
+    copier.copy(prototype, variant);
+    for (NestedCopy nestedCopy : nestedCopies) {
+      nestedCopy.copyInto(variant);
+    }
+    for (FieldSlot slot : mutableSlots) {
+      slot.generateInto(variant, context);
+    }
+    return targetType.cast(variant);
+  }
+
+  /**
+   * Create n variants of prototype.
+   * @param n number of variants
+   * @return list of variants
+   */
+  public List<T> generateMany(int n) {
+    RealObjectMockContext.checkCount(n);
+    List<T> variants = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      variants.add(generate());
+    }
+    return variants;
+  }
+}
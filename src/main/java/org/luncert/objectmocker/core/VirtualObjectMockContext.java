@@ -1,18 +1,53 @@
 package org.luncert.objectmocker.core;
 
 import java.io.IOException;
-import java.lang.reflect.Field;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.luncert.objectmocker.exception.GeneratorException;
+import org.luncert.objectmocker.random.RandomSource;
 
 class VirtualObjectMockContext implements ObjectMockContext {
 
-  private final Map<Class, ObjectGenerator> modifications = new HashMap<>();
+  private final Map<Class, ObjectGenerator> modifications = new ConcurrentHashMap<>();
+  private final Map<Class, MergedGenerator> mergedGenerators = new ConcurrentHashMap<>();
   private RealObjectMockContext realContext;
 
+  /**
+   * MergedGenerator, records configurations it was merged from.
+   */
+  private static final class MergedGenerator {
+
+    private final ObjectGenerator.Config modConfig;
+    private final ObjectGenerator basicGenerator;
+    private final ObjectGenerator.Config basicConfig;
+    private final ObjectGenerator generator;
+
+    private MergedGenerator(ObjectGenerator mod, ObjectGenerator basicGenerator,
+                            ObjectGenerator generator) {
+      this.modConfig = mod.getConfig();
+      this.basicGenerator = basicGenerator;
+      this.basicConfig = basicGenerator.getConfig();
+      this.generator = generator;
+    }
+
+    private boolean isValid(ObjectGenerator mod, ObjectGenerator basicGenerator) {
+      // configs are immutable, any modification replaces them
+      return modConfig == mod.getConfig()
+          && this.basicGenerator == basicGenerator
+          && basicConfig == basicGenerator.getConfig();
+    }
+  }
+
   VirtualObjectMockContext(RealObjectMockContext realContext) {
     this.realContext = realContext;
   }
@@ -22,6 +57,25 @@ class VirtualObjectMockContext implements ObjectMockContext {
 
   }
 
+  GraphLimits getGraphLimits() {
+    return realContext.getGraphLimits();
+  }
+
+  @Override
+  public RandomSource getRandomSource() {
+    return realContext.getRandomSource();
+  }
+
+  @Override
+  public boolean isSeeded() {
+    return realContext.isSeeded();
+  }
+
+  @Override
+  public <T> T detached(String key, Supplier<T> supplier) {
+    return realContext.detached(key, supplier);
+  }
+
   @Override
   public boolean hasGeneratorFor(Class<?> clazz) {
     return realContext.hasGeneratorFor(clazz);
@@ -31,26 +85,119 @@ class VirtualObjectMockContext implements ObjectMockContext {
   public <T> T generate(Class<T> clazz, String... tmpIgnores) {
     ObjectGenerator mod = modifications.get(clazz);
     if (mod != null) {
-      return realContext.generate(clazz, basicGenerator -> {
-        ObjectGenerator generator = new ObjectGenerator(clazz,
-            mod.getIgnores(),
-            mod.getFieldGenerators());
-
-        basicGenerator.getIgnores().forEach(generator::addIgnores);
-        Map<Field, AbstractGenerator> fieldGenerators = generator.getFieldGenerators();
-        for (Map.Entry<Field, AbstractGenerator> entry :
-            basicGenerator.getFieldGenerators().entrySet()) {
-          if (!fieldGenerators.containsKey(entry.getKey())) {
-            fieldGenerators.put(entry.getKey(), entry.getValue());
-          }
-        }
-
-        generator.setObjectMockContext(this);
-        return generator;
-      });
+      return clazz.cast(getMergedGenerator(clazz, mod).generate(this, tmpIgnores));
     } else {
-      return realContext.generate(clazz);
+      return realContext.generate(clazz, tmpIgnores);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T refill(T instance, String... tmpIgnores) {
+    Objects.requireNonNull(instance);
+    Class<?> clazz = instance.getClass();
+    ObjectGenerator mod = modifications.get(clazz);
+    if (mod != null) {
+      return (T) getMergedGenerator(clazz, mod).refill(this, instance, tmpIgnores);
+    } else {
+      return realContext.refill(instance, tmpIgnores);
+    }
+  }
+
+  @Override
+  public <T> ObjectPool<T> pool(Class<T> clazz, int capacity, String... tmpIgnores) {
+    ObjectGenerator mod = modifications.get(clazz);
+    ObjectGenerator generator = mod != null
+        ? getMergedGenerator(clazz, mod) : realContext.getObjectGenerator(clazz);
+    return new ObjectPool<>(clazz, generator.bind(this, tmpIgnores),
+        generator.bindRefill(this, tmpIgnores), capacity);
+  }
+
+  @Override
+  public <T> T generate(Class<T> clazz, IgnoreProfile profile) {
+    ObjectGenerator mod = modifications.get(clazz);
+    if (mod != null) {
+      Objects.requireNonNull(profile);
+      return clazz.cast(getMergedGenerator(clazz, mod).generate(this, profile));
+    } else {
+      return realContext.generate(clazz, profile);
+    }
+  }
+
+  @Override
+  public <T> List<T> generateMany(Class<T> clazz, int n, String... tmpIgnores) {
+    RealObjectMockContext.checkCount(n);
+    return RealObjectMockContext.fill(clazz, n, bind(clazz, tmpIgnores), new ArrayList<>(n));
+  }
+
+  @Override
+  public <T, C extends Collection<? super T>> C generateMany(Class<T> clazz, int n,
+                                                             C collection,
+                                                             String... tmpIgnores) {
+    RealObjectMockContext.checkCount(n);
+    Objects.requireNonNull(collection);
+    return RealObjectMockContext.fill(clazz, n, bind(clazz, tmpIgnores), collection);
+  }
+
+  @Override
+  public <T> T[] generateMany(Class<T> clazz, T[] array, String... tmpIgnores) {
+    return RealObjectMockContext.fill(clazz, bind(clazz, tmpIgnores), array);
+  }
+
+  @Override
+  public <T> T generateAt(Class<T> clazz, long index, String... tmpIgnores) {
+    realContext.checkIndex(index);
+    return clazz.cast(bind(clazz, tmpIgnores).apply(index));
+  }
+
+  private LongFunction<Object> bind(Class<?> clazz, String... tmpIgnores) {
+    ObjectGenerator mod = modifications.get(clazz);
+    if (mod != null) {
+      return realContext.indexed(clazz,
+          getMergedGenerator(clazz, mod).bind(this, tmpIgnores));
+    }
+    return realContext.bind(clazz, tmpIgnores);
+  }
+
+  /**
+   * Get generator merged from modification and basic generator, modification takes precedence.
+   * Merged generator is cached until either of them is modified.
+   */
+  private ObjectGenerator getMergedGenerator(Class<?> clazz, ObjectGenerator mod) {
+    ObjectGenerator basicGenerator = realContext.getObjectGenerator(clazz);
+    MergedGenerator cached = mergedGenerators.get(clazz);
+    if (cached != null && cached.isValid(mod, basicGenerator)) {
+      return cached.generator;
     }
+    ObjectGenerator generator = mod.overlay(basicGenerator);
+    generator.setObjectMockContext(this);
+    mergedGenerators.put(clazz, new MergedGenerator(mod, basicGenerator, generator));
+    return generator;
+  }
+
+  @Override
+  public <T> T[] generateParallel(Class<T> clazz, int n, int parallelism,
+                                  String... tmpIgnores) {
+    RealObjectMockContext.checkCount(n);
+    return ParallelFill.invoke(clazz, n, parallelism, bind(clazz, tmpIgnores));
+  }
+
+  @Override
+  public <T> PrefetchingGenerator<T> prefetching(Class<T> clazz, int capacity, int threads,
+                                                 String... tmpIgnores) {
+    return new PrefetchingGenerator<>(clazz, bind(clazz, tmpIgnores), capacity, threads);
+  }
+
+  @Override
+  public <T> Stream<T> stream(Class<T> clazz, String... tmpIgnores) {
+    return StreamSupport.stream(
+        GeneratingSpliterator.infinite(clazz, bind(clazz, tmpIgnores)), false);
+  }
+
+  @Override
+  public <T> Stream<T> stream(Class<T> clazz, long size, String... tmpIgnores) {
+    return StreamSupport.stream(
+        GeneratingSpliterator.sized(clazz, bind(clazz, tmpIgnores), size), false);
   }
 
   @Override
@@ -58,6 +205,19 @@ class VirtualObjectMockContext implements ObjectMockContext {
     return realContext.generate(clazz, extender, tmpIgnores);
   }
 
+  @Override
+  public <T> DerivedObjectGenerator<T> derive(Class<T> clazz, ObjectGeneratorExtender extender) {
+    return realContext.derive(clazz, extender);
+  }
+
+  @Override
+  public <T> VariantGenerator<T> variants(Class<T> clazz, String... mutableFields) {
+    ObjectGenerator mod = modifications.get(clazz);
+    ObjectGenerator generator = mod != null
+        ? getMergedGenerator(clazz, mod) : realContext.getObjectGenerator(clazz);
+    return new VariantGenerator<>(this, generator, clazz, mutableFields);
+  }
+
   @Override
   public <T> T generate(ObjectSupplier<T> supplier) {
     return realContext.generate(supplier);
@@ -74,18 +234,19 @@ class VirtualObjectMockContext implements ObjectMockContext {
   }
 
   @Override
-  public void modifyObjectGenerator(Class<?> clazz, ObjectGeneratorModifier modifier)
+  public synchronized void modifyObjectGenerator(Class<?> clazz,
+                                                 ObjectGeneratorModifier modifier)
       throws Exception {
     Objects.requireNonNull(clazz);
     if (!realContext.hasGeneratorFor(clazz)) {
       throw new GeneratorException("No generator registered for class %s.", clazz.getName());
     }
-    ObjectGenerator generator = modifications.get(clazz);
-    if (generator == null) {
-      generator = new ObjectGenerator(clazz);
-      modifications.put(clazz, generator);
+    ObjectGenerator mod = modifications.get(clazz);
+    if (mod == null) {
+      mod = new ObjectGenerator(clazz, Collections.emptySet(), Collections.emptyMap());
     }
-    modifier.accept(generator);
+    modifications.put(clazz, mod.modified(this, modifier));
+    mergedGenerators.remove(clazz);
   }
 
   /**
@@ -0,0 +1,171 @@
+package org.luncert.objectmocker.random;
+
+import java.util.SplittableRandom;
+
+/**
+ * RandomSource, provides random values to generators.
+ * Builtin generators obtain it from {@link org.luncert.objectmocker.core.ObjectMockContext}
+ * instead of sharing one {@link java.util.Random}, whose seed would be contended by
+ * concurrent generating threads.
+ * @author Luncert
+ */
+public interface RandomSource {
+
+  int nextInt();
+
+  /**
+   * Generate an int value.
+   * @param bound exclusive upper bound, must be positive
+   * @return value in [0, bound)
+   */
+  int nextInt(int bound);
+
+  long nextLong();
+
+  /**
+   * Generate a long value.
+   * @param bound exclusive upper bound, must be positive
+   * @return value in [0, bound)
+   */
+  long nextLong(long bound);
+
+  /**
+   * Generate a double value.
+   * @return value in [0, 1)
+   */
+  double nextDouble();
+
+  boolean nextBoolean();
+
+  /**
+   * Create a source for another thread, its sequence is independent of this one.
+   * @return RandomSource
+   */
+  RandomSource split();
+
+  /**
+   * Whether this source could be shared by concurrent threads. Otherwise the context creates
+   * one source for each generating thread with {@link #split()}.
+   * @return true if thread safe
+   */
+  default boolean isThreadSafe() {
+    return false;
+  }
+
+  /**
+   * Generate an int value in [start, end), start is returned if they are equal.
+   * @param start inclusive lower bound
+   * @param end exclusive upper bound
+   * @return int value
+   */
+  default int nextInt(int start, int end) {
+    if (end < start) {
+      throw new IllegalArgumentException("end must not be smaller than start");
+    }
+    if (start == end) {
+      return start;
+    }
+    int range = end - start;
+    if (range > 0) {
+      return start + nextInt(range);
+    }
+    // range overflows int, more than half of all values are in it, so few draws are rejected
+    int value;
+    do {
+      value = nextInt();
+    } while (value < start || value >= end);
+    return value;
+  }
+
+  /**
+   * Generate a long value in [start, end), start is returned if they are equal.
+   * @param start inclusive lower bound
+   * @param end exclusive upper bound
+   * @return long value
+   */
+  default long nextLong(long start, long end) {
+    if (end < start) {
+      throw new IllegalArgumentException("end must not be smaller than start");
+    }
+    if (start == end) {
+      return start;
+    }
+    long range = end - start;
+    if (range > 0) {
+      return start + nextLong(range);
+    }
+    // range overflows long, more than half of all values are in it, so few draws are rejected
+    long value;
+    do {
+      value = nextLong();
+    } while (value < start || value >= end);
+    return value;
+  }
+
+  /**
+   * Generate a double value in [start, end), start is returned if they are equal.
+   * @param start inclusive lower bound
+   * @param end exclusive upper bound
+   * @return double value
+   */
+  default double nextDouble(double start, double end) {
+    if (end < start) {
+      throw new IllegalArgumentException("end must not be smaller than start");
+    }
+    return start == end ? start : start + (end - start) * nextDouble();
+  }
+
+  /**
+   * Fill bytes with random values, each random long provides 8 bytes.
+   * @param bytes target array
+   */
+  default void nextBytes(byte[] bytes) {
+    int i = 0;
+    int len = bytes.length;
+    for (int words = len >> 3; words > 0; words--) {
+      long rnd = nextLong();
+      for (int n = 0; n < Long.BYTES; n++, rnd >>>= Byte.SIZE) {
+        bytes[i++] = (byte) rnd;
+      }
+    }
+    if (i < len) {
+      for (long rnd = nextLong(); i < len; rnd >>>= Byte.SIZE) {
+        bytes[i++] = (byte) rnd;
+      }
+    }
+  }
+
+  /**
+   * RandomSource backed by {@link java.util.concurrent.ThreadLocalRandom}, the default one.
+   * @return RandomSource
+   */
+  static RandomSource threadLocal() {
+    return ThreadLocalRandomSource.INSTANCE;
+  }
+
+  static RandomSource splittable() {
+    return new SplittableRandomSource(new SplittableRandom());
+  }
+
+  /**
+   * RandomSource backed by {@link SplittableRandom}.
+   * @param seed initial seed
+   * @return RandomSource
+   */
+  static RandomSource splittable(long seed) {
+    return new SplittableRandomSource(new SplittableRandom(seed));
+  }
+
+  static RandomSource xoshiro256StarStar() {
+    return new Xoshiro256StarStarSource(new SplittableRandom().nextLong());
+  }
+
+  /**
+   * RandomSource using xoshiro256** algorithm.
+   * @param seed initial seed
+   * @return RandomSource
+   */
+  static RandomSource xoshiro256StarStar(long seed) {
+    return new Xoshiro256StarStarSource(seed);
+  }
+}
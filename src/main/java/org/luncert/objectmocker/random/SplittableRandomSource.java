@@ -0,0 +1,51 @@
+package org.luncert.objectmocker.random;
+
+import java.util.SplittableRandom;
+
+/**
+ * RandomSource backed by {@link SplittableRandom}, not thread safe.
+ * @author Luncert
+ */
+final class SplittableRandomSource implements RandomSource {
+
+  private final SplittableRandom random;
+
+  SplittableRandomSource(SplittableRandom random) {
+    this.random = random;
+  }
+
+  @Override
+  public int nextInt() {
+    return random.nextInt();
+  }
+
+  @Override
+  public int nextInt(int bound) {
+    return random.nextInt(bound);
+  }
+
+  @Override
+  public long nextLong() {
+    return random.nextLong();
+  }
+
+  @Override
+  public long nextLong(long bound) {
+    return random.nextLong(bound);
+  }
+
+  @Override
+  public double nextDouble() {
+    return random.nextDouble();
+  }
+
+  @Override
+  public boolean nextBoolean() {
+    return random.nextBoolean();
+  }
+
+  @Override
+  public RandomSource split() {
+    return new SplittableRandomSource(random.split());
+  }
+}
@@ -0,0 +1,55 @@
+package org.luncert.objectmocker.random;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RandomSource delegating to {@link ThreadLocalRandom} of current thread.
+ * @author Luncert
+ */
+final class ThreadLocalRandomSource implements RandomSource {
+
+  static final ThreadLocalRandomSource INSTANCE = new ThreadLocalRandomSource();
+
+  private ThreadLocalRandomSource() {
+  }
+
+  @Override
+  public int nextInt() {
+    return ThreadLocalRandom.current().nextInt();
+  }
+
+  @Override
+  public int nextInt(int bound) {
+    return ThreadLocalRandom.current().nextInt(bound);
+  }
+
+  @Override
+  public long nextLong() {
+    return ThreadLocalRandom.current().nextLong();
+  }
+
+  @Override
+  public long nextLong(long bound) {
+    return ThreadLocalRandom.current().nextLong(bound);
+  }
+
+  @Override
+  public double nextDouble() {
+    return ThreadLocalRandom.current().nextDouble();
+  }
+
+  @Override
+  public boolean nextBoolean() {
+    return ThreadLocalRandom.current().nextBoolean();
+  }
+
+  @Override
+  public RandomSource split() {
+    return this;
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+}
@@ -0,0 +1,135 @@
+package org.luncert.objectmocker.random;
+
+/**
+ * RandomSource using xoshiro256** algorithm of Blackman and Vigna, not thread safe.
+ * Splitting hands current state to the new source and jumps this one ahead by 2^128 steps,
+ * so sequences of split sources never overlap.
+ * @author Luncert
+ */
+final class Xoshiro256StarStarSource implements RandomSource {
+
+  private static final long[] JUMP = {
+      0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL, 0xa9582618e03fc9aaL, 0x39abdc4529b1661cL
+  };
+
+  private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+  private long s0;
+  private long s1;
+  private long s2;
+  private long s3;
+
+  /**
+   * Expand seed into initial state with SplitMix64, as recommended by the authors.
+   * @param seed initial seed
+   */
+  Xoshiro256StarStarSource(long seed) {
+    s0 = mix64(seed += 0x9e3779b97f4a7c15L);
+    s1 = mix64(seed += 0x9e3779b97f4a7c15L);
+    s2 = mix64(seed += 0x9e3779b97f4a7c15L);
+    s3 = mix64(seed + 0x9e3779b97f4a7c15L);
+  }
+
+  private Xoshiro256StarStarSource(long s0, long s1, long s2, long s3) {
+    this.s0 = s0;
+    this.s1 = s1;
+    this.s2 = s2;
+    this.s3 = s3;
+  }
+
+  private static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  @Override
+  public long nextLong() {
+    final long result = Long.rotateLeft(s1 * 5, 7) * 9;
+    final long t = s1 << 17;
+    s2 ^= s0;
+    s3 ^= s1;
+    s1 ^= s2;
+    s0 ^= s3;
+    s2 ^= t;
+    s3 = Long.rotateLeft(s3, 45);
+    return result;
+  }
+
+  @Override
+  public int nextInt() {
+    return (int) (nextLong() >>> 32);
+  }
+
+  @Override
+  public int nextInt(int bound) {
+    if (bound <= 0) {
+      throw new IllegalArgumentException("bound must be positive");
+    }
+    int r = nextInt();
+    int m = bound - 1;
+    if ((bound & m) == 0) {
+      return r & m;
+    }
+    // reject values from the incomplete last interval to stay uniform
+    for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = nextInt() >>> 1) {
+      // retry
+    }
+    return r;
+  }
+
+  @Override
+  public long nextLong(long bound) {
+    if (bound <= 0) {
+      throw new IllegalArgumentException("bound must be positive");
+    }
+    long r = nextLong();
+    long m = bound - 1;
+    if ((bound & m) == 0L) {
+      return r & m;
+    }
+    for (long u = r >>> 1; u + m - (r = u % bound) < 0L; u = nextLong() >>> 1) {
+      // retry
+    }
+    return r;
+  }
+
+  @Override
+  public double nextDouble() {
+    return (nextLong() >>> 11) * DOUBLE_UNIT;
+  }
+
+  @Override
+  public boolean nextBoolean() {
+    return nextLong() < 0;
+  }
+
+  @Override
+  public RandomSource split() {
+    RandomSource child = new Xoshiro256StarStarSource(s0, s1, s2, s3);
+    jump();
+    return child;
+  }
+
+  private void jump() {
+    long t0 = 0;
+    long t1 = 0;
+    long t2 = 0;
+    long t3 = 0;
+    for (long jump : JUMP) {
+      for (int b = 0; b < 64; b++) {
+        if ((jump & (1L << b)) != 0) {
+          t0 ^= s0;
+          t1 ^= s1;
+          t2 ^= s2;
+          t3 ^= s3;
+        }
+        nextLong();
+      }
+    }
+    s0 = t0;
+    s1 = t1;
+    s2 = t2;
+    s3 = t3;
+  }
+}
@@ -6,22 +6,50 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
+import org.luncert.objectmocker.core.CyclePolicy;
+import org.luncert.objectmocker.core.DerivedObjectGenerator;
+import org.luncert.objectmocker.core.GeneratedObjectGenerator;
+import org.luncert.objectmocker.core.IgnoreProfile;
 import org.luncert.objectmocker.core.ObjectGenerator;
 import org.luncert.objectmocker.core.ObjectMockContext;
+import org.luncert.objectmocker.core.ObjectPool;
+import org.luncert.objectmocker.core.PrefetchingGenerator;
+import org.luncert.objectmocker.core.VariantGenerator;
+import org.luncert.objectmocker.exception.GeneratorException;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
+import static org.luncert.objectmocker.builtingenerator.BuiltinGeneratorBuilder.arrayGenerator;
 import static org.luncert.objectmocker.builtingenerator.BuiltinGeneratorBuilder.enumGenerator;
+import static org.luncert.objectmocker.builtingenerator.BuiltinGeneratorBuilder.integerGenerator;
+import static org.luncert.objectmocker.builtingenerator.BuiltinGeneratorBuilder.longGenerator;
 
 @RunWith(JUnit4.class)
 public class ObjectMockerTest {
@@ -53,6 +81,54 @@ public class ObjectMockerTest {
     context.generate(TestClass.class);
   }
 
+  @Test
+  public void compiledAccessors() {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(TestClass.class).compiledAccessors().build())
+        // LevelB has no setter, falls back to MethodHandle
+        .register(ObjectGenerator.builder(LevelB.class).compiledAccessors().build())
+        .create();
+
+    TestClass ins = context.generate(TestClass.class);
+    Assert.assertNotNull(ins.getBigDecimalField());
+    Assert.assertNotNull(ins.getDoubleField());
+    Assert.assertNotNull(ins.getEnumField());
+    Assert.assertEquals(8, ins.getStringField().length());
+    Assert.assertTrue(ins.getIntegerField() >= 0);
+    Assert.assertTrue(ins.getLongField() >= 0);
+
+    Assert.assertNotNull(context.generate(LevelB.class));
+
+    // compiled accessors write fields directly, setters are never called
+    context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(Tagged.class).compiledAccessors().build())
+        .register(ObjectGenerator.builder(Faulty.class).compiledAccessors().build())
+        .create();
+    Assert.assertFalse(context.generate(Tagged.class).label.startsWith("tag:"));
+    try {
+      context.generate(Faulty.class);
+      Assert.fail("Catch no exception");
+    } catch (GeneratorException e) {
+      Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  public static class Tagged {
+    private String label;
+
+    public void setLabel(String label) {
+      this.label = "tag:" + label;
+    }
+  }
+
+  public static class Faulty {
+    private String name;
+
+    public Faulty() {
+      throw new IllegalStateException("rejected");
+    }
+  }
+
   public static class LevelA {
     private String name;
     private String pos;
@@ -72,6 +148,7 @@ public class ObjectMockerTest {
 
     Map<String, Object> config = new HashMap<>();
     config.put("name", "ASD");
+    config.put("pos", Pattern.compile("[A-Z]{3}-\\d{6}"));
     config.put("items", Arrays.asList(
         ImmutableMap.builder().put("id", "1").build(),
         ImmutableMap.builder().put("id", "2").build()
@@ -79,10 +156,20 @@ public class ObjectMockerTest {
 
     LevelA ins = context.generate(LevelA.class, config);
     Assert.assertEquals("ASD", ins.name);
-    Assert.assertNotNull(ins.pos);
+    Assert.assertTrue(ins.pos.matches("[A-Z]{3}-\\d{6}"));
     Assert.assertEquals(2, ins.items.size());
     Assert.assertEquals(1, ins.items.get(0).id);
     Assert.assertEquals(2, ins.items.get(1).id);
+
+    config.put("pos", Pattern.compile("[a-z]{3}", Pattern.CASE_INSENSITIVE));
+    Assert.assertTrue(context.generate(LevelA.class, config).pos.matches("[a-z]{3}"));
+    config.put("pos", Pattern.compile("[a-z]{3}", Pattern.COMMENTS));
+    try {
+      context.generate(LevelA.class, config);
+      Assert.fail("Catch no exception");
+    } catch (IllegalArgumentException e) {
+      Assert.assertTrue(e.getMessage().contains("CASE_INSENSITIVE"));
+    }
   }
 
   @Test
@@ -102,6 +189,140 @@ public class ObjectMockerTest {
     Assert.assertNull(ins.getShouldBeIgnored());
   }
 
+  @Test
+  public void copyContextSharesUnmodifiedGenerators() throws Exception {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(LevelA.class).build())
+        .register(ObjectGenerator.builder(LevelB.class).build())
+        .create();
+
+    ObjectMockContext copiedCtx = context.copy();
+    // replace the shared entry many times
+    for (int i = 0; i < 20; i++) {
+      int id = -i;
+      copiedCtx.modifyObjectGenerator(LevelB.class, generator ->
+          generator.setGenerator("id", (ctx, clz) -> id));
+    }
+
+    // nested objects are generated by the context in use, even if LevelA generator is shared
+    LevelA ins = copiedCtx.generate(LevelA.class);
+    for (LevelB item : ins.items) {
+      Assert.assertEquals(-19, item.id);
+    }
+    ins = context.generate(LevelA.class);
+    for (LevelB item : ins.items) {
+      Assert.assertTrue(item.id >= 0);
+    }
+
+    context.modifyObjectGenerator(LevelA.class, generator -> generator.addIgnores("items"));
+    Assert.assertNull(context.generate(LevelA.class).items);
+    Assert.assertNotNull(copiedCtx.generate(LevelA.class).items);
+  }
+
+  @Test
+  public void copyContextIsolatesRegisteredGenerator() throws Exception {
+    ObjectGenerator generator = ObjectGenerator.builder(TestClass.class).build();
+    ObjectMockContext context = ObjectMocker.context().register(generator).create();
+    ObjectMockContext copiedCtx = context.copy();
+    ObjectMockContext copiedTwice = copiedCtx.copy();
+
+    // registered generator modified in place only affects its own context
+    generator.addIgnores("shouldBeIgnored");
+    generator.setGenerator("stringUuidField", (ctx, clz) -> "X801EF");
+    TestClass ins = context.generate(TestClass.class);
+    Assert.assertNull(ins.getShouldBeIgnored());
+    Assert.assertEquals("X801EF", ins.getStringUuidField());
+    for (ObjectMockContext ctx : Arrays.asList(copiedCtx, copiedTwice)) {
+      ins = ctx.generate(TestClass.class);
+      Assert.assertNotNull(ins.getShouldBeIgnored());
+      Assert.assertNotEquals("X801EF", ins.getStringUuidField());
+    }
+
+    ObjectMockContext copiedLater = context.copy();
+    generator.removeIgnores("shouldBeIgnored");
+    Assert.assertNotNull(context.generate(TestClass.class).getShouldBeIgnored());
+    Assert.assertNull(copiedLater.generate(TestClass.class).getShouldBeIgnored());
+  }
+
+  @Test
+  public void copyContextKeepsRandomSource() {
+    ObjectMockContext context = ObjectMocker.context()
+        .seed(20201017L)
+        .register(ObjectGenerator.builder(TestClass.class)
+            .addIgnores("dateField", "zonedDateTimeField")
+            .build())
+        .create();
+    ObjectMockContext untouched = ObjectMocker.context()
+        .seed(20201017L)
+        .register(ObjectGenerator.builder(TestClass.class)
+            .addIgnores("dateField", "zonedDateTimeField")
+            .build())
+        .create();
+
+    // copying draws nothing from the source of the copied context
+    ObjectMockContext copiedCtx = context.copy();
+    context.copy();
+    TestClass expected = untouched.generate(TestClass.class);
+    Assert.assertEquals(expected, context.generate(TestClass.class));
+    Assert.assertEquals(expected, copiedCtx.generate(TestClass.class));
+  }
+
+  @Test
+  public void modifyGeneratorAfterGenerating() throws Exception {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(TestClass.class).build())
+        .create();
+
+    TestClass ins = context.generate(TestClass.class);
+    Assert.assertNotNull(ins.getShouldBeIgnored());
+
+    context.modifyObjectGenerator(TestClass.class, generator -> {
+      generator.addIgnores("shouldBeIgnored");
+      generator.setGenerator("stringUuidField", (ctx, clz) -> "X801EF");
+    });
+    ins = context.generate(TestClass.class);
+    Assert.assertNull(ins.getShouldBeIgnored());
+    Assert.assertEquals("X801EF", ins.getStringUuidField());
+
+    context.modifyObjectGenerator(TestClass.class, generator ->
+        generator.removeIgnores("shouldBeIgnored"));
+    ins = context.generate(TestClass.class, "stringField");
+    Assert.assertNotNull(ins.getShouldBeIgnored());
+    Assert.assertNull(ins.getStringField());
+  }
+
+  @Test
+  public void ignoreProfile() throws Exception {
+    ObjectGenerator generator = ObjectGenerator.builder(TestClass.class).build();
+    ObjectMockContext context = ObjectMocker.context()
+        .register(generator)
+        .register(ObjectGenerator.builder(LevelB.class).build())
+        .create();
+
+    IgnoreProfile profile = generator.ignoreProfile("stringField", "bigDecimalField", "unknown");
+    for (int i = 0; i < 10; i++) {
+      TestClass ins = context.generate(TestClass.class, profile);
+      Assert.assertNull(ins.getStringField());
+      Assert.assertNull(ins.getBigDecimalField());
+      Assert.assertNotNull(ins.getShouldBeIgnored());
+    }
+    Assert.assertNotNull(context.generate(TestClass.class, IgnoreProfile.NONE).getStringField());
+
+    ObjectMockContext virtualCtx = context.createVirtualContext();
+    virtualCtx.modifyObjectGenerator(TestClass.class, gen -> gen.addIgnores("shouldBeIgnored"));
+    TestClass ins = virtualCtx.generate(TestClass.class, profile);
+    Assert.assertNull(ins.getStringField());
+    Assert.assertNull(ins.getShouldBeIgnored());
+    Assert.assertNotNull(ins.getDateField());
+
+    try {
+      context.generate(LevelB.class, profile);
+      Assert.fail("Catch no exception");
+    } catch (GeneratorException e) {
+      // pass
+    }
+  }
+
   @Test
   public void extendRegisteredGenerator() throws NoSuchFieldException {
     ObjectMockContext context = ObjectMocker.context()
@@ -119,6 +340,561 @@ public class ObjectMockerTest {
           .extend(basicGenerator)
     );
     Assert.assertEquals(TestEnum.A, ins.getEnumField());
+
+    // extending doesn't merge basic generator into builder, so builder could be reused
+    ObjectGenerator.ObjectGeneratorBuilder builder = ObjectGenerator.builder(TestClass.class);
+    ObjectGenerator basic = ObjectGenerator.builder(TestClass.class)
+        .addIgnores("shouldBeIgnored")
+        .field("enumField", enumGenerator(TestEnum.A))
+        .build();
+    builder.extend(basic);
+    context = ObjectMocker.context().register(builder.build()).create();
+    ins = context.generate(TestClass.class);
+    Assert.assertNotNull(ins.getShouldBeIgnored());
+    // enumField of basic generator hasn't been merged, so it could still be set once
+    builder.field("enumField", enumGenerator(TestEnum.B));
+    context = ObjectMocker.context().register(builder.build()).create();
+    Assert.assertEquals(TestEnum.B, context.generate(TestClass.class).getEnumField());
+  }
+
+  @Test
+  public void deriveGenerator() throws Exception {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(TestClass.class).build())
+        .create();
+
+    AtomicInteger extended = new AtomicInteger();
+    DerivedObjectGenerator<TestClass> derived = context.derive(TestClass.class, basicGenerator -> {
+      extended.incrementAndGet();
+      return ObjectGenerator.builder(TestClass.class)
+          .field("enumField", enumGenerator(TestEnum.A))
+          .extend(basicGenerator);
+    });
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals(TestEnum.A, derived.generate().getEnumField());
+    }
+    for (TestClass ins : derived.generateMany(10, "stringField")) {
+      Assert.assertEquals(TestEnum.A, ins.getEnumField());
+      Assert.assertNull(ins.getStringField());
+    }
+    Assert.assertEquals(1, extended.get());
+
+    // modification of registered generator is inherited
+    context.modifyObjectGenerator(TestClass.class, generator ->
+        generator.addIgnores("shouldBeIgnored"));
+    TestClass ins = derived.generate();
+    Assert.assertNull(ins.getShouldBeIgnored());
+    Assert.assertEquals(TestEnum.A, ins.getEnumField());
+    Assert.assertEquals(2, extended.get());
+
+    // so is modification in place
+    ObjectGenerator registered = ObjectGenerator.builder(TestClass.class).build();
+    ObjectMockContext inPlaceCtx = ObjectMocker.context().register(registered).create();
+    derived = inPlaceCtx.derive(TestClass.class, basicGenerator ->
+        ObjectGenerator.builder(TestClass.class).extend(basicGenerator));
+    Assert.assertNotNull(derived.generate().getShouldBeIgnored());
+    registered.addIgnores("shouldBeIgnored");
+    Assert.assertNull(derived.generate().getShouldBeIgnored());
+  }
+
+  @Test
+  public void primitiveFieldGenerators() throws NoSuchFieldException {
+    for (boolean compiled : new boolean[]{false, true}) {
+      ObjectGenerator.ObjectGeneratorBuilder builder = ObjectGenerator.builder(TestClass.class)
+          .field("integerField", integerGenerator(-5, 5))
+          .field("longField", longGenerator(7L));
+      if (compiled) {
+        builder.compiledAccessors();
+      }
+      ObjectMockContext context = ObjectMocker.context().register(builder.build()).create();
+      for (int i = 0; i < 20; i++) {
+        TestClass ins = context.generate(TestClass.class);
+        Assert.assertTrue(ins.getIntegerField() >= -5 && ins.getIntegerField() < 5);
+        Assert.assertEquals(7L, ins.getLongField());
+      }
+    }
+  }
+
+  @Data
+  public static class Measure {
+    private long count;
+    private double ratio;
+    private boolean valid;
+  }
+
+  @Test
+  public void widenedFieldValues() throws Exception {
+    for (boolean compiled : new boolean[]{false, true}) {
+      ObjectGenerator.ObjectGeneratorBuilder builder = ObjectGenerator.builder(Measure.class)
+          .field("count", (ctx, clz) -> 3)
+          .field("ratio", (ctx, clz) -> 0.5f);
+      if (compiled) {
+        builder.compiledAccessors();
+      }
+      ObjectMockContext context = ObjectMocker.context().register(builder.build()).create();
+      Measure ins = context.generate(Measure.class);
+      Assert.assertEquals(3L, ins.getCount());
+      Assert.assertEquals(0.5, ins.getRatio(), 0);
+
+      context.modifyObjectGenerator(Measure.class, generator ->
+          generator.setGenerator("valid", (ctx, clz) -> null));
+      try {
+        context.generate(Measure.class);
+        Assert.fail("Catch no exception");
+      } catch (GeneratorException e) {
+        Assert.assertTrue(e.getMessage().contains("valid"));
+      }
+    }
+  }
+
+  public static class Payload {
+    private byte[] data;
+    private long[] offsets;
+    private int[] sizes;
+    private TestEnum[] kinds;
+    private LevelB[] items;
+    private int[][] matrix;
+  }
+
+  @Test
+  public void arrayFields() throws NoSuchFieldException {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(Payload.class)
+            .field("data", arrayGenerator(1024))
+            .field("sizes", arrayGenerator(4, integerGenerator(1, 3)))
+            .build())
+        .register(ObjectGenerator.builder(LevelB.class).build())
+        .create();
+
+    Payload ins = context.generate(Payload.class);
+    Assert.assertEquals(1024, ins.data.length);
+    Assert.assertEquals(8, ins.offsets.length);
+    for (long offset : ins.offsets) {
+      Assert.assertTrue(offset >= 0);
+    }
+    Assert.assertEquals(4, ins.sizes.length);
+    for (int size : ins.sizes) {
+      Assert.assertTrue(size >= 1 && size < 3);
+    }
+    Assert.assertEquals(8, ins.kinds.length);
+    Assert.assertNotNull(ins.kinds[0]);
+    Assert.assertNotNull(ins.items[7]);
+    Assert.assertEquals(8, ins.matrix.length);
+    Assert.assertEquals(8, ins.matrix[0].length);
+  }
+
+  public static class Holder<K, V> {
+    protected K key;
+    protected Map<K, List<V>> index;
+    protected Optional<V> first;
+    protected V[] values;
+  }
+
+  public static class Catalog extends Holder<String, LevelB> {
+    private Set<TestEnum> kinds;
+    private Deque<Long> history;
+    private SortedMap<Integer, String> names;
+    private List<Map<String, List<LevelB>>> groups;
+  }
+
+  @Test
+  public void genericFields() {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(Catalog.class).build())
+        .register(ObjectGenerator.builder(LevelB.class).build())
+        .create();
+
+    Catalog ins = context.generate(Catalog.class);
+    Assert.assertEquals(8, ins.key.length());
+    Assert.assertEquals(8, ins.index.size());
+    for (Map.Entry<String, List<LevelB>> entry : ins.index.entrySet()) {
+      Assert.assertEquals(8, entry.getValue().size());
+      Assert.assertTrue(entry.getValue().get(0) instanceof LevelB);
+    }
+    Assert.assertTrue(ins.first.get() instanceof LevelB);
+    Assert.assertEquals(LevelB.class, ins.values.getClass().getComponentType());
+    Assert.assertEquals(8, ins.values.length);
+    Assert.assertFalse(ins.kinds.isEmpty());
+    Assert.assertTrue(ins.kinds.iterator().next() instanceof TestEnum);
+    Assert.assertEquals(8, ins.history.size());
+    Assert.assertTrue(ins.names instanceof TreeMap);
+    Assert.assertEquals(8, ins.groups.size());
+    List<LevelB> group = ins.groups.get(0).values().iterator().next();
+    Assert.assertTrue(group.get(7) instanceof LevelB);
+  }
+
+  @Data
+  public static class Item {
+    private String name;
+    private int count;
+  }
+
+  public static class Bag {
+    private Set<Item> items;
+    private Map<Item, String> index;
+  }
+
+  @Test
+  public void hashedNestedObjects() {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(Bag.class).build())
+        .register(ObjectGenerator.builder(Item.class).build())
+        .create();
+
+    // set elements and map keys are filled before being hashed
+    Bag bag = context.generate(Bag.class);
+    Assert.assertEquals(8, bag.items.size());
+    Assert.assertEquals(8, bag.index.size());
+    for (Item item : bag.items) {
+      Assert.assertNotNull(item.getName());
+      Assert.assertTrue(bag.items.contains(item));
+    }
+    for (Item key : bag.index.keySet()) {
+      Assert.assertNotNull(bag.index.get(key));
+    }
+
+    context.refill(bag);
+    Assert.assertEquals(8, bag.items.size());
+    Assert.assertEquals(8, bag.index.size());
+    Item key = bag.index.keySet().iterator().next();
+    Assert.assertTrue(bag.index.containsKey(key));
+  }
+
+  public static class QueueNode {
+    private Deque<QueueNode> children;
+    private ConcurrentMap<String, QueueNode> index;
+  }
+
+  public static class Ranked implements Comparable<Ranked> {
+    private int rank;
+    private TreeSet<Ranked> lower;
+    private TreeMap<Ranked, String> names;
+
+    @Override
+    public int compareTo(Ranked o) {
+      return Integer.compare(rank, o.rank);
+    }
+  }
+
+  public static class Unranked {
+    private TreeSet<Unranked> items;
+  }
+
+  @Test
+  public void nullHostileContainers() {
+    // cycles are cut with null elements, which are skipped by containers rejecting null
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(QueueNode.class).build())
+        .register(ObjectGenerator.builder(Ranked.class).build())
+        .register(ObjectGenerator.builder(Unranked.class).build())
+        .create();
+    QueueNode node = context.generate(QueueNode.class);
+    Assert.assertTrue(node.children.isEmpty());
+    Assert.assertTrue(node.index.isEmpty());
+    Ranked ranked = context.generate(Ranked.class);
+    Assert.assertTrue(ranked.lower.isEmpty());
+    Assert.assertTrue(ranked.names.isEmpty());
+    context.refill(ranked);
+    Assert.assertTrue(ranked.lower.isEmpty());
+
+    // elements of sorted containers must be Comparable
+    try {
+      context.generate(Unranked.class);
+      Assert.fail("Catch no exception");
+    } catch (GeneratorException e) {
+      Assert.assertTrue(e.getMessage().contains("Comparable"));
+    }
+  }
+
+  public static class Node {
+    private String name;
+    private Node parent;
+    private List<Node> children;
+  }
+
+  public static class Chain {
+    private Chain next;
+  }
+
+  @Test
+  public void cyclePolicy() {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(Node.class).build())
+        .create();
+    Node node = context.generate(Node.class);
+    Assert.assertNull(node.parent);
+    Assert.assertEquals(8, node.children.size());
+    Assert.assertNull(node.children.get(0));
+
+    context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(Node.class).build())
+        .cyclePolicy(CyclePolicy.REUSE_ANCESTOR)
+        .create();
+    node = context.generate(Node.class);
+    Assert.assertSame(node, node.parent);
+    Assert.assertSame(node, node.children.get(7));
+  }
+
+  public static class GeneratedNode {
+    private String name;
+    private GeneratedNode parent;
+  }
+
+  /**
+   * Stands for a generator emitted by objectmocker-processor, registered in test resources.
+   */
+  public static class GeneratedNodeGenerator implements GeneratedObjectGenerator<GeneratedNode> {
+
+    @Override
+    public Class<GeneratedNode> getTargetType() {
+      return GeneratedNode.class;
+    }
+
+    @Override
+    public GeneratedNode newInstance() {
+      return new GeneratedNode();
+    }
+
+    @Override
+    public void fill(ObjectMockContext context, GeneratedNode target) {
+      target.name = context.generate(String.class);
+      target.parent = context.generate(GeneratedNode.class);
+    }
+  }
+
+  @Test
+  public void cyclePolicyWithGeneratedGenerator() {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(GeneratedNode.class).build())
+        .cyclePolicy(CyclePolicy.REUSE_ANCESTOR)
+        .create();
+    GeneratedNode node = context.generate(GeneratedNode.class);
+    Assert.assertNotNull(node.name);
+    Assert.assertSame(node, node.parent);
+
+    context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(GeneratedNode.class).build())
+        .create();
+    Assert.assertNull(context.generate(GeneratedNode.class).parent);
+  }
+
+  public static class ArrayNode {
+    private ArrayNode[] children;
+    private long filledAt;
+  }
+
+  @Test
+  public void arrayElementsFilledAfterHolder() throws Exception {
+    AtomicLong clock = new AtomicLong();
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(ArrayNode.class)
+            .field("filledAt", (ctx, clz) -> clock.incrementAndGet())
+            .build())
+        .cyclePolicy(CyclePolicy.EXPAND)
+        .maxDepth(1)
+        .create();
+    ArrayNode root = context.generate(ArrayNode.class);
+    Assert.assertEquals(8, root.children.length);
+    for (ArrayNode child : root.children) {
+      // elements are created with the array, but filled after the object holding it
+      Assert.assertTrue(child.filledAt > root.filledAt);
+      Assert.assertNull(child.children[0]);
+    }
+  }
+
+  @Test
+  public void maxDepth() {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(Node.class).addIgnores("parent").build())
+        .cyclePolicy(CyclePolicy.EXPAND)
+        .maxDepth(2)
+        .create();
+    Node root = context.generate(Node.class);
+    Node leaf = root.children.get(3).children.get(5);
+    Assert.assertNotNull(leaf.name);
+    Assert.assertNull(leaf.children.get(0));
+
+    // graph deeper than Java stack could hold is generated iteratively
+    context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(Chain.class).build())
+        .cyclePolicy(CyclePolicy.EXPAND)
+        .maxDepth(100000)
+        .create();
+    Chain chain = context.generate(Chain.class);
+    int length = 0;
+    for (; chain != null; chain = chain.next) {
+      length++;
+    }
+    Assert.assertEquals(100001, length);
+  }
+
+  @Test
+  public void maxObjects() {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(Node.class).addIgnores("parent").build())
+        .cyclePolicy(CyclePolicy.EXPAND)
+        .maxDepth(10)
+        .maxObjects(1000)
+        .create();
+    try {
+      context.generate(Node.class);
+      Assert.fail("Catch no exception");
+    } catch (GeneratorException e) {
+      Assert.assertTrue(e.getMessage().contains("1000"));
+    }
+    // limits apply to each root object
+    Assert.assertNotNull(context.generate(Node.class, "children"));
+  }
+
+  @Test
+  public void prefetching() throws Exception {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(LevelA.class).build())
+        .register(ObjectGenerator.builder(LevelB.class).build())
+        .create();
+    PrefetchingGenerator<LevelA> prefetching = context.prefetching(LevelA.class, 16, 2);
+    try {
+      Set<LevelA> objects = new HashSet<>();
+      for (int i = 0; i < 1000; i++) {
+        LevelA levelA = prefetching.take();
+        Assert.assertEquals(8, levelA.items.size());
+        objects.add(levelA);
+      }
+      Assert.assertEquals(1000, objects.size());
+      Assert.assertTrue(prefetching.ready() <= 16);
+    } finally {
+      prefetching.close();
+    }
+    // ready objects are discarded by close
+    try {
+      prefetching.take();
+      Assert.fail("Catch no exception");
+    } catch (GeneratorException e) {
+      Assert.assertTrue(e.getMessage().contains("closed"));
+    }
+    try {
+      prefetching.poll();
+      Assert.fail("Catch no exception");
+    } catch (GeneratorException e) {
+      Assert.assertTrue(e.getMessage().contains("closed"));
+    }
+
+    // failure of worker is rethrown to consumer, after objects already ready
+    for (boolean polling : new boolean[]{false, true}) {
+      AtomicInteger generated = new AtomicInteger();
+      CountDownLatch failed = new CountDownLatch(1);
+      context.modifyObjectGenerator(LevelA.class, generator ->
+          generator.setGenerator("name", (ctx, clz) -> {
+            if (generated.incrementAndGet() > 2) {
+              failed.countDown();
+              throw new IllegalStateException("broken");
+            }
+            return "ready";
+          }));
+      try (PrefetchingGenerator<LevelA> broken = context.prefetching(LevelA.class, 4, 1)) {
+        Assert.assertTrue(failed.await(10, TimeUnit.SECONDS));
+        // let worker record its failure
+        Thread.sleep(100);
+        for (int i = 0; i < 2; i++) {
+          Assert.assertEquals("ready", (polling ? broken.poll() : broken.take()).name);
+        }
+        try {
+          if (polling) {
+            broken.poll();
+          } else {
+            broken.take();
+          }
+          Assert.fail("Catch no exception");
+        } catch (GeneratorException e) {
+          Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+      }
+    }
+
+    // capacity is rounded up to a power of 2, which must fit in int
+    try {
+      context.prefetching(LevelA.class, (1 << 30) + 1, 1);
+      Assert.fail("Catch no exception");
+    } catch (IllegalArgumentException e) {
+      Assert.assertTrue(e.getMessage().contains("capacity"));
+    }
+  }
+
+  @Test
+  public void refill() {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(LevelA.class).build())
+        .register(ObjectGenerator.builder(LevelB.class).build())
+        .create();
+    LevelA levelA = context.generate(LevelA.class);
+    String name = levelA.name;
+    String pos = levelA.pos;
+    List<LevelB> items = levelA.items;
+    LevelB first = items.get(0);
+    int firstId = first.id;
+
+    Assert.assertSame(levelA, context.refill(levelA, "pos"));
+    Assert.assertNotEquals(name, levelA.name);
+    Assert.assertSame(pos, levelA.pos);
+    // nested list and its elements are reused
+    Assert.assertSame(items, levelA.items);
+    Assert.assertSame(first, levelA.items.get(0));
+    Assert.assertNotEquals(firstId, first.id);
+
+    // a missing nested object is generated
+    levelA.items = null;
+    context.refill(levelA);
+    Assert.assertNotNull(levelA.items);
+
+    ObjectPool<LevelA> pool = context.pool(LevelA.class, 1);
+    LevelA pooled = pool.acquire();
+    name = pooled.name;
+    pool.release(pooled);
+    pool.release(new LevelA());
+    Assert.assertEquals(1, pool.size());
+    Assert.assertSame(pooled, pool.acquire());
+    Assert.assertNotEquals(name, pooled.name);
+    Assert.assertNotSame(pooled, pool.acquire());
+  }
+
+  @Test
+  public void variants() {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(LevelA.class).build())
+        .register(ObjectGenerator.builder(LevelB.class).build())
+        .register(ObjectGenerator.builder(Node.class).build())
+        .create();
+    VariantGenerator<LevelA> variants = context.variants(LevelA.class, "name");
+    LevelA prototype = variants.getPrototype();
+    Set<String> names = new HashSet<>();
+    for (LevelA variant : variants.generateMany(100)) {
+      Assert.assertNotSame(prototype, variant);
+      Assert.assertEquals(prototype.pos, variant.pos);
+      Assert.assertSame(prototype.items, variant.items);
+      names.add(variant.name);
+    }
+    Assert.assertTrue(names.size() > 90);
+
+    // nested objects are copied, so they could be modified independently
+    VariantGenerator<Node> nodes = ObjectMocker.context()
+        .register(ObjectGenerator.builder(Node.class).build())
+        .cyclePolicy(CyclePolicy.EXPAND)
+        .maxDepth(1)
+        .create()
+        .variants(Node.class, "name")
+        .copyingNested();
+    Node node = nodes.generate();
+    Node parent = nodes.getPrototype().parent;
+    Assert.assertNotSame(parent, node.parent);
+    Assert.assertEquals(parent.name, node.parent.name);
+    Assert.assertSame(nodes.getPrototype().children, node.children);
+
+    try {
+      context.variants(LevelA.class, "missing");
+      Assert.fail("Catch no exception");
+    } catch (GeneratorException e) {
+      Assert.assertTrue(e.getMessage().contains("missing"));
+    }
   }
 
   @Test
@@ -134,6 +910,185 @@ public class ObjectMockerTest {
     Assert.assertNotNull(id);
   }
 
+  @Test
+  public void generateMany() throws Exception {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(TestClass.class).addIgnores("shouldBeIgnored").build())
+        .create();
+
+    List<TestClass> list = context.generateMany(TestClass.class, 100, "stringField");
+    Assert.assertEquals(100, list.size());
+    for (TestClass ins : list) {
+      Assert.assertNull(ins.getShouldBeIgnored());
+      Assert.assertNull(ins.getStringField());
+      Assert.assertNotNull(ins.getStringUuidField());
+    }
+
+    Set<TestClass> set = context.generateMany(TestClass.class, 10, new HashSet<>());
+    Assert.assertEquals(10, set.size());
+
+    String[] strings = context.generateMany(String.class, new String[16]);
+    for (String value : strings) {
+      Assert.assertEquals(8, value.length());
+    }
+
+    ObjectMockContext virtualCtx = context.createVirtualContext();
+    virtualCtx.modifyObjectGenerator(TestClass.class, generator ->
+        generator.setGenerator("stringUuidField", (ctx, clz) -> "X801EF"));
+    TestClass[] array = virtualCtx.generateMany(TestClass.class, new TestClass[10],
+        "dateField");
+    for (TestClass ins : array) {
+      Assert.assertNull(ins.getShouldBeIgnored());
+      Assert.assertNull(ins.getDateField());
+      Assert.assertEquals("X801EF", ins.getStringUuidField());
+    }
+    Assert.assertNull(virtualCtx.generate(TestClass.class, "dateField").getDateField());
+  }
+
+  @Test
+  public void stream() throws Exception {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(TestClass.class).build())
+        .create();
+
+    List<TestClass> list = context.stream(TestClass.class, 1000, "shouldBeIgnored")
+        .parallel()
+        .collect(Collectors.toList());
+    Assert.assertEquals(1000, list.size());
+    Assert.assertEquals(1000, list.stream().distinct().count());
+    for (TestClass ins : list) {
+      Assert.assertNull(ins.getShouldBeIgnored());
+    }
+
+    Assert.assertEquals(10, context.stream(String.class).limit(10).count());
+
+    ObjectMockContext virtualCtx = context.createVirtualContext();
+    virtualCtx.modifyObjectGenerator(TestClass.class, generator ->
+        generator.setGenerator("stringUuidField", (ctx, clz) -> "X801EF"));
+    Assert.assertTrue(virtualCtx.stream(TestClass.class)
+        .limit(5)
+        .allMatch(ins -> "X801EF".equals(ins.getStringUuidField())));
+  }
+
+  @Test
+  public void generateParallel() throws Exception {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(TestClass.class).build())
+        .create();
+
+    TestClass[] array = context.generateParallel(TestClass.class, 10000, 4, "shouldBeIgnored");
+    Assert.assertEquals(10000, array.length);
+    Set<TestClass> distinct = new HashSet<>(Arrays.asList(array));
+    Assert.assertEquals(10000, distinct.size());
+    for (TestClass ins : array) {
+      Assert.assertNull(ins.getShouldBeIgnored());
+    }
+
+    Integer[] integers = context.generateParallel(int.class, 100, 2);
+    Assert.assertEquals(100, integers.length);
+    Assert.assertFalse(Arrays.asList(integers).contains(null));
+  }
+
+  @Test
+  public void generateAt() throws Exception {
+    ObjectMockContext context = ObjectMocker.context()
+        .seed(20201017L)
+        .register(ObjectGenerator.builder(TestClass.class)
+            // time based fields couldn't be reproduced
+            .addIgnores("dateField", "zonedDateTimeField")
+            .build())
+        .create();
+
+    List<TestClass> list = context.generateMany(TestClass.class, 100);
+    TestClass[] array = context.generateParallel(TestClass.class, 1000, 4);
+    List<TestClass> streamed = context.stream(TestClass.class, 1000).parallel()
+        .collect(Collectors.toList());
+    for (int i : new int[]{0, 1, 57, 99}) {
+      Assert.assertEquals(list.get(i), context.generateAt(TestClass.class, i));
+    }
+    Assert.assertNotEquals(list.get(0), list.get(1));
+    Assert.assertEquals(list, Arrays.asList(array).subList(0, 100));
+    Assert.assertEquals(Arrays.asList(array), streamed);
+    Assert.assertEquals(array[999], context.generateAt(TestClass.class, 999));
+
+    ObjectMockContext sameSeed = ObjectMocker.context()
+        .seed(20201017L)
+        .register(ObjectGenerator.builder(TestClass.class)
+            .addIgnores("dateField", "zonedDateTimeField")
+            .build())
+        .create();
+    Assert.assertEquals(array[500], sameSeed.generateAt(TestClass.class, 500));
+    Assert.assertEquals(array[3], context.copy().generateAt(TestClass.class, 3));
+
+    try {
+      ObjectMocker.context().create().generateAt(String.class, 0);
+      Assert.fail("Catch no exception");
+    } catch (GeneratorException e) {
+      // pass
+    }
+    try {
+      context.generateAt(TestClass.class, -1);
+      Assert.fail("Catch no exception");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("index must not be negative", e.getMessage());
+    }
+  }
+
+  public static class LevelC {
+    private String name;
+  }
+
+  @Test
+  public void concurrentModifyAndRegister() throws Exception {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(TestClass.class).build())
+        .create();
+
+    int readers = 4;
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < readers; i++) {
+      threads.add(new Thread(() -> {
+        try {
+          while (running.get()) {
+            TestClass ins = context.generate(TestClass.class);
+            // both modifications are published at once
+            Assert.assertEquals(ins.getShouldBeIgnored() == null,
+                "X801EF".equals(ins.getStringUuidField()));
+            if (context.hasGeneratorFor(LevelC.class)) {
+              Assert.assertNotNull(context.generate(LevelC.class).name);
+            }
+          }
+        } catch (Throwable e) {
+          failure.compareAndSet(null, e);
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+
+    for (int i = 0; i < 2000 && failure.get() == null; i++) {
+      context.modifyObjectGenerator(TestClass.class, generator -> {
+        generator.addIgnores("shouldBeIgnored");
+        generator.setGenerator("stringUuidField", (ctx, clz) -> "X801EF");
+      });
+      context.modifyObjectGenerator(TestClass.class, generator -> {
+        generator.removeIgnores("shouldBeIgnored");
+        generator.setGenerator("stringUuidField", (ctx, clz) -> "uuid");
+      });
+      if (i == 1000) {
+        context.register(ObjectGenerator.builder(LevelC.class).build());
+      }
+    }
+    running.set(false);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+  }
+
   @Test
   public void createVirtualContext() throws Exception {
     ObjectMockContext context = ObjectMocker.context()
@@ -154,4 +1109,29 @@ public class ObjectMockerTest {
     Assert.assertNull(value.getShouldBeIgnored());
     Assert.assertEquals("X801EF", value.getStringUuidField());
   }
+
+  @Test
+  public void virtualContextFollowsModifications() throws Exception {
+    ObjectMockContext context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(TestClass.class).compiledAccessors().build())
+        .create();
+
+    ObjectMockContext virtualCtx = context.createVirtualContext();
+    virtualCtx.modifyObjectGenerator(TestClass.class, generator ->
+        generator.setGenerator("stringUuidField", (ctx, clz) -> "X801EF"));
+    Assert.assertEquals("X801EF", virtualCtx.generate(TestClass.class).getStringUuidField());
+
+    // modification of virtual context
+    virtualCtx.modifyObjectGenerator(TestClass.class, generator ->
+        generator.setGenerator("stringUuidField", (ctx, clz) -> "Y901EF"));
+    Assert.assertEquals("Y901EF", virtualCtx.generate(TestClass.class).getStringUuidField());
+
+    // modification of basic generator
+    context.modifyObjectGenerator(TestClass.class, generator ->
+        generator.addIgnores("shouldBeIgnored"));
+    TestClass value = virtualCtx.generate(TestClass.class);
+    Assert.assertNull(value.getShouldBeIgnored());
+    Assert.assertEquals("Y901EF", value.getStringUuidField());
+    Assert.assertNull(virtualCtx.generateMany(TestClass.class, 2).get(1).getShouldBeIgnored());
+  }
 }
@@ -0,0 +1,88 @@
+package org.luncert.objectmocker.builtingenerator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.luncert.objectmocker.ObjectMocker;
+import org.luncert.objectmocker.core.AbstractGenerator;
+
+import java.util.UUID;
+
+@RunWith(JUnit4.class)
+public class ArrayGeneratorTest {
+
+  @Test
+  public void primitiveArrays() {
+    int len = 37;
+    AbstractGenerator<Object> generator = BuiltinGeneratorBuilder.arrayGenerator(len);
+    Assert.assertEquals(len, ((byte[]) generator.generate(null, byte.class)).length);
+    Assert.assertEquals(len, ((int[]) generator.generate(null, int.class)).length);
+    Assert.assertEquals(len, ((long[]) generator.generate(null, long.class)).length);
+    Assert.assertEquals(len, ((boolean[]) generator.generate(null, boolean.class)).length);
+    Assert.assertEquals(len, ((char[]) generator.generate(null, char.class)).length);
+    Assert.assertEquals(len, ((short[]) generator.generate(null, short.class)).length);
+    for (double value : (double[]) generator.generate(null, double.class)) {
+      Assert.assertTrue(value >= 0 && value < 1);
+    }
+    for (float value : (float[]) generator.generate(null, float.class)) {
+      Assert.assertTrue(value >= 0 && value < 1);
+    }
+  }
+
+  @Test
+  public void objectArray() {
+    AbstractGenerator<Object> generator = BuiltinGeneratorBuilder.arrayGenerator(5);
+    UUID[] ids = (UUID[]) generator.generate(ObjectMocker.context().create(), UUID.class);
+    Assert.assertEquals(5, ids.length);
+    for (UUID id : ids) {
+      Assert.assertNotNull(id);
+    }
+  }
+
+  @Test
+  public void withLengthRange() {
+    AbstractGenerator<Object> generator = BuiltinGeneratorBuilder.arrayGenerator(2, 4);
+    for (int i = 0; i < 50; i++) {
+      int len = ((long[]) generator.generate(null, long.class)).length;
+      Assert.assertTrue(len >= 2 && len <= 4);
+    }
+
+    try {
+      BuiltinGeneratorBuilder.arrayGenerator(0, Integer.MAX_VALUE);
+      Assert.fail("Catch no exception");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("maxLen must be smaller than Integer.MAX_VALUE", e.getMessage());
+    }
+  }
+
+  @Test
+  public void withElementGenerator() {
+    AbstractGenerator<Object> generator = BuiltinGeneratorBuilder.arrayGenerator(10,
+        BuiltinGeneratorBuilder.integerGenerator(3, 6));
+    for (int value : (int[]) generator.generate(null, int.class)) {
+      Assert.assertTrue(value >= 3 && value < 6);
+    }
+
+    generator = BuiltinGeneratorBuilder.arrayGenerator(10, (ctx, clz) -> (short) 7);
+    for (short value : (short[]) generator.generate(null, short.class)) {
+      Assert.assertEquals(7, value);
+    }
+  }
+
+  @Test
+  public void invalidParameter() {
+    try {
+      BuiltinGeneratorBuilder.arrayGenerator(-1);
+      Assert.fail("Catch no exception");
+    } catch (IllegalArgumentException e) {
+      // pass
+    }
+    try {
+      BuiltinGeneratorBuilder.arrayGenerator(3, 2);
+      Assert.fail("Catch no exception");
+    } catch (IllegalArgumentException e) {
+      // pass
+    }
+  }
+}
@@ -26,6 +26,17 @@ public class IntegerGeneratorTest {
     Assert.assertTrue(value < end);
   }
 
+  @Test
+  public void nextInt() {
+    int start = -1, end = 10;
+    IntegerGenerator generator = BuiltinGeneratorBuilder.integerGenerator(start, end);
+    for (int i = 0; i < 100; i++) {
+      int value = generator.nextInt(null);
+      Assert.assertTrue(value >= start);
+      Assert.assertTrue(value < end);
+    }
+  }
+
   @Test
   public void invalidParameter() {
     try {
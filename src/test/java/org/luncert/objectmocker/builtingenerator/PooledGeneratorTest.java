@@ -0,0 +1,97 @@
+package org.luncert.objectmocker.builtingenerator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.luncert.objectmocker.ObjectMocker;
+import org.luncert.objectmocker.core.AbstractGenerator;
+import org.luncert.objectmocker.core.ObjectGenerator;
+import org.luncert.objectmocker.core.ObjectMockContext;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+@RunWith(JUnit4.class)
+public class PooledGeneratorTest {
+
+  @Test
+  public void cycle() {
+    AbstractGenerator<UUID> generator =
+        BuiltinGeneratorBuilder.uuidGenerator(4, PoolReusePolicy.CYCLE);
+    UUID[] values = new UUID[4];
+    for (int i = 0; i < 4; i++) {
+      values[i] = generator.generate(null);
+    }
+    for (int i = 0; i < 8; i++) {
+      Assert.assertSame(values[i % 4], generator.generate(null));
+    }
+  }
+
+  @Test
+  public void random() {
+    AbstractGenerator<String> generator =
+        BuiltinGeneratorBuilder.stringGenerator(6, 8, PoolReusePolicy.RANDOM);
+    Set<String> values = new HashSet<>();
+    for (int i = 0; i < 1000; i++) {
+      String value = generator.generate(null);
+      Assert.assertEquals(6, value.length());
+      values.add(value);
+    }
+    Assert.assertTrue(values.size() <= 8);
+  }
+
+  @Test
+  public void refill() {
+    for (PoolReusePolicy policy : new PoolReusePolicy[]{
+        PoolReusePolicy.REFILL, PoolReusePolicy.REFILL_ASYNC}) {
+      AbstractGenerator<UUID> generator = BuiltinGeneratorBuilder.uuidGenerator(16, policy);
+      Set<UUID> values = new HashSet<>();
+      for (int i = 0; i < 100; i++) {
+        values.add(generator.generate(null));
+      }
+      Assert.assertEquals(100, values.size());
+    }
+  }
+
+  public static class Token {
+    private UUID id;
+  }
+
+  @Test
+  public void seeded() throws Exception {
+    for (PoolReusePolicy policy : PoolReusePolicy.values()) {
+      UUID[] forward = new UUID[16];
+      ObjectMockContext context = seededContext(policy);
+      for (int i = 0; i < 16; i++) {
+        forward[i] = context.generateAt(Token.class, i).id;
+      }
+      // generate the same indexes in reverse order with a new pool
+      context = seededContext(policy);
+      for (int i = 15; i >= 0; i--) {
+        Assert.assertEquals(forward[i], context.generateAt(Token.class, i).id);
+      }
+      Assert.assertEquals(forward[7], context.generateAt(Token.class, 7).id);
+    }
+  }
+
+  private static ObjectMockContext seededContext(PoolReusePolicy policy) throws Exception {
+    return ObjectMocker.context()
+        .seed(20201017L)
+        .register(ObjectGenerator.builder(Token.class)
+            .field("id", BuiltinGeneratorBuilder.uuidGenerator(4, policy))
+            .build())
+        .create();
+  }
+
+  @Test
+  public void failedCase() {
+    try {
+      BuiltinGeneratorBuilder.uuidGenerator(0, PoolReusePolicy.CYCLE);
+      Assert.fail("Catch no exception");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("poolSize must be positive", e.getMessage());
+    }
+  }
+}
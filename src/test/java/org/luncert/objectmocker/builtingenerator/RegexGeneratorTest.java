@@ -0,0 +1,89 @@
+package org.luncert.objectmocker.builtingenerator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.luncert.objectmocker.core.AbstractGenerator;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@RunWith(JUnit4.class)
+public class RegexGeneratorTest {
+
+  @Test
+  public void successCase() {
+    String[] regexes = {
+        "[A-Z]{3}-\\d{6}",
+        "^ORD_[0-9a-f]{8}$",
+        "(foo|bar)+baz?",
+        "(?:[a-c]x){2,4}",
+        "[^a-z]{5}",
+        "\\w+@\\w{2,}\\.(com|org)",
+        "a.b*c\\.\\*",
+        "[-+]?\\d{1,3}(,\\d{3})*",
+        "\\s\\S\\D\\W",
+        "[a&b]{4}",
+        "",
+    };
+    for (String regex : regexes) {
+      AbstractGenerator<String> generator = BuiltinGeneratorBuilder.regexGenerator(regex);
+      Pattern pattern = Pattern.compile(regex);
+      for (int i = 0; i < 200; i++) {
+        String value = generator.generate(null);
+        Assert.assertTrue(regex + " => " + value, pattern.matcher(value).matches());
+      }
+    }
+  }
+
+  @Test
+  public void anchors() {
+    // anchors where they always match, values are checked against the whole pattern
+    String[] regexes = {"^abc$", "^a|b$", "(^a|^b)c", "(?:x$|y)", "^(?:a(b)$)", "^^a$$",
+        "[$^]{3}", "\\^\\$"};
+    for (String regex : regexes) {
+      AbstractGenerator<String> generator = BuiltinGeneratorBuilder.regexGenerator(regex);
+      Pattern pattern = Pattern.compile(regex);
+      for (int i = 0; i < 50; i++) {
+        String value = generator.generate(null);
+        Assert.assertTrue(regex + " => " + value, pattern.matcher(value).matches());
+      }
+    }
+
+    String[] unsupported = {"a^b", "a$b", "a(^b)", "(a$)b", "(a$|b)c", "(^a)+", "x|a^"};
+    for (String regex : unsupported) {
+      try {
+        BuiltinGeneratorBuilder.regexGenerator(regex);
+        Assert.fail("Catch no exception for " + regex);
+      } catch (IllegalArgumentException e) {
+        Assert.assertTrue(e.getMessage().contains("anchor"));
+      }
+    }
+  }
+
+  @Test
+  public void randomness() {
+    AbstractGenerator<String> generator = BuiltinGeneratorBuilder.regexGenerator("[A-Z]{3}");
+    Set<String> values = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      values.add(generator.generate(null));
+    }
+    Assert.assertTrue(values.size() > 90);
+  }
+
+  @Test
+  public void failedCase() {
+    String[] regexes = {"(ab", "ab)", "[a-", "a{2", "a{3,1}", "*a", "\\1", "(?=a)",
+        "[a-z&&[^b]]", "[a[bc]]", "[a-[b]]"};
+    for (String regex : regexes) {
+      try {
+        BuiltinGeneratorBuilder.regexGenerator(regex);
+        Assert.fail("Catch no exception for " + regex);
+      } catch (IllegalArgumentException e) {
+        Assert.assertTrue(e.getMessage().contains(regex));
+      }
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package org.luncert.objectmocker.builtingenerator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.luncert.objectmocker.core.AbstractGenerator;
+import org.luncert.objectmocker.random.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare alphabetic strings of commons-lang3 RandomStringUtils, a loop drawing one random int
+ * per character, {@link Alphabet} drawing several characters per random long, and
+ * {@link RegexGenerator} generating the same strings from {@code [A-Za-z]{len}}.
+ * Run with {@code -prof gc} to compare allocation rate too.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StringGeneratorBenchmark {
+
+  private static final char[] ALPHABETIC =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+  @Param({"8", "32", "256"})
+  private int len;
+
+  private RandomSource random;
+  private AbstractGenerator<String> generator;
+  private AbstractGenerator<String> regexGenerator;
+
+  @Setup
+  public void setup() {
+    random = RandomSource.threadLocal();
+    generator = BuiltinGeneratorBuilder.stringGenerator(len);
+    regexGenerator = BuiltinGeneratorBuilder.regexGenerator("[A-Za-z]{" + len + "}");
+  }
+
+  @Benchmark
+  public String randomStringUtils() {
+    return RandomStringUtils.randomAlphabetic(len);
+  }
+
+  @Benchmark
+  public String charPerInt() {
+    char[] chars = new char[len];
+    for (int i = 0; i < len; i++) {
+      chars[i] = ALPHABETIC[random.nextInt(ALPHABETIC.length)];
+    }
+    return new String(chars);
+  }
+
+  @Benchmark
+  public String alphabet() {
+    return generator.generate(null);
+  }
+
+  @Benchmark
+  public String regex() {
+    return regexGenerator.generate(null);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(StringGeneratorBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
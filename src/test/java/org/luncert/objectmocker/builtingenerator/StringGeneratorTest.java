@@ -22,6 +22,52 @@ public class StringGeneratorTest {
     Assert.assertEquals(len, value.length());
   }
 
+  @Test
+  public void withAlphabet() {
+    AbstractGenerator<String> generator =
+        BuiltinGeneratorBuilder.stringGenerator(Alphabet.HEX, 32);
+    Set<Character> chars = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      String value = generator.generate(null);
+      Assert.assertTrue(value.matches("[0-9a-f]{32}"));
+      for (char c : value.toCharArray()) {
+        chars.add(c);
+      }
+    }
+    Assert.assertEquals(16, chars.size());
+
+    generator = BuiltinGeneratorBuilder.stringGenerator(Alphabet.of("xy"), 4096);
+    Assert.assertTrue(generator.generate(null).matches("[xy]{4096}"));
+    generator = BuiltinGeneratorBuilder.stringGenerator(Alphabet.ASCII_PRINTABLE, 100);
+    Assert.assertTrue(generator.generate(null).matches("[ -~]{100}"));
+  }
+
+  @Test
+  public void lengthRange() {
+    AbstractGenerator<String> generator =
+        BuiltinGeneratorBuilder.stringGenerator(Alphabet.ALPHANUMERIC, 2, 5);
+    Set<Integer> lengths = new HashSet<>();
+    for (int i = 0; i < 1000; i++) {
+      String value = generator.generate(null);
+      Assert.assertTrue(value.matches("[A-Za-z0-9]{2,5}"));
+      lengths.add(value.length());
+    }
+    Assert.assertEquals(4, lengths.size());
+
+    try {
+      BuiltinGeneratorBuilder.stringGenerator(5, 4);
+      Assert.fail("Catch no exception");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("maxLen must not be smaller than minLen", e.getMessage());
+    }
+    try {
+      BuiltinGeneratorBuilder.stringGenerator(1, Integer.MAX_VALUE);
+      Assert.fail("Catch no exception");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("maxLen must be smaller than Integer.MAX_VALUE", e.getMessage());
+    }
+  }
+
   @Test
   public void nonPositiveLength() {
     try {
@@ -16,5 +16,43 @@ public class UuidGeneratorTest {
     AbstractGenerator<UUID> generator = BuiltinGeneratorBuilder.uuidGenerator();
     UUID value = generator.generate(null);
     Assert.assertNotNull(value);
+    Assert.assertEquals(4, value.version());
+    Assert.assertEquals(2, value.variant());
+  }
+
+  @Test
+  public void timeOrdered() {
+    AbstractGenerator<UUID> generator = BuiltinGeneratorBuilder.timeOrderedUuidGenerator();
+    UUID previous = generator.generate(null);
+    for (int i = 0; i < 10000; i++) {
+      UUID value = generator.generate(null);
+      Assert.assertEquals(7, value.version());
+      Assert.assertEquals(2, value.variant());
+      Assert.assertTrue(value.compareTo(previous) > 0);
+      previous = value;
+    }
+    long millis = previous.getMostSignificantBits() >>> 16;
+    Assert.assertTrue(Math.abs(System.currentTimeMillis() - millis) < 60_000);
+  }
+
+  @Test
+  public void uuidString() {
+    AbstractGenerator<String> generator = BuiltinGeneratorBuilder.uuidStringGenerator();
+    for (int i = 0; i < 1000; i++) {
+      String value = generator.generate(null);
+      UUID uuid = UUID.fromString(value);
+      Assert.assertEquals(uuid.toString(), value);
+      Assert.assertEquals(4, uuid.version());
+      Assert.assertEquals(2, uuid.variant());
+    }
+
+    generator = BuiltinGeneratorBuilder.timeOrderedUuidStringGenerator();
+    String previous = generator.generate(null);
+    for (int i = 0; i < 1000; i++) {
+      String value = generator.generate(null);
+      Assert.assertEquals(7, UUID.fromString(value).version());
+      Assert.assertTrue(value.compareTo(previous) > 0);
+      previous = value;
+    }
   }
 }
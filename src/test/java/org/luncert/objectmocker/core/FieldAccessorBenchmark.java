@@ -0,0 +1,108 @@
+package org.luncert.objectmocker.core;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.luncert.objectmocker.ObjectMocker;
+import org.luncert.objectmocker.ObjectMockerTest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare core reflection against MethodHandle accessors, with the constructor bound by
+ * MethodHandle or LambdaMetafactory, when creating and filling instances of
+ * {@link ObjectMockerTest.TestClass}.
+ * Field values are generated in setup, so only instantiation and field writes are measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FieldAccessorBenchmark {
+
+  private static final Class<?> TARGET = ObjectMockerTest.TestClass.class;
+
+  private Field[] fields;
+  private Object[] values;
+  private Instantiator instantiator;
+  private FieldAccessor[] accessors;
+  private Instantiator lambdaInstantiator;
+
+  @Setup
+  public void setup() {
+    ObjectGenerator generator = ObjectGenerator.builder(TARGET).build();
+    ObjectMocker.context().register(generator).create();
+    Object sample = generator.generate();
+
+    List<Field> writable = new ArrayList<>();
+    for (Field field : TARGET.getDeclaredFields()) {
+      int modifiers = field.getModifiers();
+      if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers) && !field.isSynthetic()) {
+        field.setAccessible(true);
+        writable.add(field);
+      }
+    }
+    fields = writable.toArray(new Field[0]);
+    values = new Object[fields.length];
+    accessors = new FieldAccessor[fields.length];
+    for (int i = 0; i < fields.length; i++) {
+      try {
+        values[i] = fields[i].get(sample);
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException(e);
+      }
+      accessors[i] = FieldAccessor.of(fields[i]);
+    }
+    instantiator = Instantiator.of(TARGET);
+    lambdaInstantiator = LambdaAccessors.instantiator(TARGET);
+  }
+
+  @Benchmark
+  public Object reflection() throws Exception {
+    Object target = TARGET.getConstructor().newInstance();
+    for (int i = 0; i < fields.length; i++) {
+      fields[i].set(target, values[i]);
+    }
+    return target;
+  }
+
+  @Benchmark
+  public Object methodHandle() {
+    Object target = instantiator.newInstance();
+    for (int i = 0; i < accessors.length; i++) {
+      accessors[i].set(target, values[i]);
+    }
+    return target;
+  }
+
+  @Benchmark
+  public Object lambdaMetafactory() {
+    Object target = lambdaInstantiator.newInstance();
+    for (int i = 0; i < accessors.length; i++) {
+      accessors[i].set(target, values[i]);
+    }
+    return target;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(FieldAccessorBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
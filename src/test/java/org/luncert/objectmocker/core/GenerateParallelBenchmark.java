@@ -0,0 +1,58 @@
+package org.luncert.objectmocker.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.luncert.objectmocker.ObjectMocker;
+import org.luncert.objectmocker.ObjectMockerTest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measure how {@link ObjectMockContext#generateParallel} scales with parallelism when generating
+ * a large fixture of {@link ObjectMockerTest.TestClass}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GenerateParallelBenchmark {
+
+  private static final int SIZE = 200_000;
+
+  @Param({"1", "2", "4", "8"})
+  private int parallelism;
+
+  private ObjectMockContext context;
+
+  @Setup
+  public void setup() {
+    context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(ObjectMockerTest.TestClass.class).build())
+        .create();
+  }
+
+  @Benchmark
+  public Object generateParallel() {
+    return context.generateParallel(ObjectMockerTest.TestClass.class, SIZE, parallelism);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(GenerateParallelBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,64 @@
+package org.luncert.objectmocker.core;
+
+import java.lang.reflect.Array;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class GeneratorRegistryTest {
+
+  // array classes of 1 to 200 dimensions, enough entries to split nodes of the trie
+  private static Class<?>[] types(int n) {
+    Class<?>[] types = new Class<?>[n];
+    for (int i = 0; i < n; i++) {
+      types[i] = Array.newInstance(String.class, new int[i + 1]).getClass();
+    }
+    return types;
+  }
+
+  private static ObjectGenerator generator(Class<?> type) {
+    return new ObjectGenerator(type, Collections.emptySet(), Collections.emptyMap());
+  }
+
+  @Test
+  public void persistent() {
+    Class<?>[] types = types(200);
+    GeneratorRegistry[] versions = new GeneratorRegistry[types.length + 1];
+    versions[0] = GeneratorRegistry.EMPTY;
+    for (int i = 0; i < types.length; i++) {
+      versions[i + 1] = versions[i].with(types[i], generator(types[i]));
+    }
+
+    GeneratorRegistry full = versions[types.length];
+    for (int i = 0; i < types.length; i++) {
+      Assert.assertSame(types[i], full.get(types[i]).getGenerator().getTargetType());
+      // earlier versions don't see entries added later
+      Assert.assertNull(versions[i].get(types[i]));
+      Assert.assertNotNull(versions[i + 1].get(types[i]));
+    }
+    Assert.assertNull(full.get(String.class));
+
+    ObjectGenerator replacement = generator(types[42]);
+    GeneratorRegistry replaced = full.with(types[42], replacement);
+    Assert.assertSame(replacement, replaced.get(types[42]).getGenerator());
+    Assert.assertNotSame(replacement, full.get(types[42]).getGenerator());
+    Assert.assertSame(full.get(types[41]), replaced.get(types[41]));
+  }
+
+  @Test
+  public void pinnedConfig() {
+    ObjectGenerator generator = generator(String[].class);
+    GeneratorRegistry registry = GeneratorRegistry.EMPTY.with(String[].class, generator);
+    GeneratorRegistry.Entry entry = registry.get(String[].class);
+    Assert.assertTrue(entry.isCurrent());
+
+    generator.addIgnores("length");
+    Assert.assertFalse(entry.isCurrent());
+    Assert.assertSame(entry, registry.get(String[].class));
+    Assert.assertTrue(registry.with(String[].class, generator).get(String[].class).isCurrent());
+  }
+}
@@ -0,0 +1,60 @@
+package org.luncert.objectmocker.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.luncert.objectmocker.ObjectMocker;
+import org.luncert.objectmocker.ObjectMockerTest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare throughput of generating new objects with refilling objects recycled by a pool.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ObjectPoolBenchmark {
+
+  private ObjectMockContext context;
+  private ObjectPool<ObjectMockerTest.TestClass> pool;
+
+  @Setup
+  public void setup() {
+    context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(ObjectMockerTest.TestClass.class).build())
+        .create();
+    pool = context.pool(ObjectMockerTest.TestClass.class, 16);
+  }
+
+  @Benchmark
+  public Object generate() {
+    return context.generate(ObjectMockerTest.TestClass.class);
+  }
+
+  @Benchmark
+  public Object pooled() {
+    ObjectMockerTest.TestClass object = pool.acquire();
+    pool.release(object);
+    return object;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(ObjectPoolBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,64 @@
+package org.luncert.objectmocker.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.luncert.objectmocker.ObjectMocker;
+import org.luncert.objectmocker.ObjectMockerTest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare latency of generating an object on the calling thread with taking a prefetched one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrefetchingGeneratorBenchmark {
+
+  private ObjectMockContext context;
+  private PrefetchingGenerator<ObjectMockerTest.TestClass> prefetching;
+
+  @Setup
+  public void setup() {
+    context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(ObjectMockerTest.TestClass.class).build())
+        .create();
+    prefetching = context.prefetching(ObjectMockerTest.TestClass.class, 1024, 2);
+  }
+
+  @Benchmark
+  public Object generate() {
+    return context.generate(ObjectMockerTest.TestClass.class);
+  }
+
+  @Benchmark
+  public Object take() {
+    return prefetching.take();
+  }
+
+  @TearDown
+  public void tearDown() {
+    prefetching.close();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(PrefetchingGeneratorBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,59 @@
+package org.luncert.objectmocker.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.luncert.objectmocker.ObjectMocker;
+import org.luncert.objectmocker.ObjectMockerTest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare throughput of full generation with variants of a prototype differing in two fields.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VariantGeneratorBenchmark {
+
+  private ObjectMockContext context;
+  private VariantGenerator<ObjectMockerTest.TestClass> variants;
+
+  @Setup
+  public void setup() {
+    context = ObjectMocker.context()
+        .register(ObjectGenerator.builder(ObjectMockerTest.TestClass.class).build())
+        .create();
+    variants = context.variants(ObjectMockerTest.TestClass.class,
+        "integerField", "stringField");
+  }
+
+  @Benchmark
+  public Object generate() {
+    return context.generate(ObjectMockerTest.TestClass.class);
+  }
+
+  @Benchmark
+  public Object variant() {
+    return variants.generate();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(VariantGeneratorBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
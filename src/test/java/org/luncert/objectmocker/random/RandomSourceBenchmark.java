@@ -0,0 +1,128 @@
+package org.luncert.objectmocker.random;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.luncert.objectmocker.ObjectMocker;
+import org.luncert.objectmocker.ObjectMockerTest;
+import org.luncert.objectmocker.core.ObjectGenerator;
+import org.luncert.objectmocker.core.ObjectMockContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare RandomSources when generating {@link ObjectMockerTest.TestClass} from concurrent
+ * threads, sharedRandom stands for the single {@link Random} used by commons-lang3 RandomUtils.
+ * Run {@link #main} to measure with 1, 4 and 16 threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RandomSourceBenchmark {
+
+  @Param({"sharedRandom", "threadLocal", "splittable", "xoshiro256StarStar"})
+  private String source;
+
+  private ObjectMockContext context;
+
+  @Setup
+  public void setup() {
+    context = ObjectMocker.context()
+        .randomSource(createSource(source))
+        .register(ObjectGenerator.builder(ObjectMockerTest.TestClass.class).build())
+        .create();
+  }
+
+  private static RandomSource createSource(String name) {
+    switch (name) {
+      case "sharedRandom":
+        return new SharedRandomSource(new Random());
+      case "threadLocal":
+        return RandomSource.threadLocal();
+      case "splittable":
+        return RandomSource.splittable();
+      case "xoshiro256StarStar":
+        return RandomSource.xoshiro256StarStar();
+      default:
+        throw new IllegalArgumentException(name);
+    }
+  }
+
+  @Benchmark
+  public Object generate() {
+    return context.generate(ObjectMockerTest.TestClass.class);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    for (int threads : new int[]{1, 4, 16}) {
+      new Runner(new OptionsBuilder()
+          .include(RandomSourceBenchmark.class.getSimpleName())
+          .threads(threads)
+          .build()).run();
+    }
+  }
+
+  private static final class SharedRandomSource implements RandomSource {
+
+    private final Random random;
+
+    SharedRandomSource(Random random) {
+      this.random = random;
+    }
+
+    @Override
+    public int nextInt() {
+      return random.nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+      return random.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+      return random.nextLong();
+    }
+
+    @Override
+    public long nextLong(long bound) {
+      return (long) (random.nextDouble() * bound);
+    }
+
+    @Override
+    public double nextDouble() {
+      return random.nextDouble();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+      return random.nextBoolean();
+    }
+
+    @Override
+    public RandomSource split() {
+      return this;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+      return true;
+    }
+  }
+}
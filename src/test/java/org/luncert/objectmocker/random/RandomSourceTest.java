@@ -0,0 +1,137 @@
+package org.luncert.objectmocker.random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.luncert.objectmocker.ObjectMocker;
+import org.luncert.objectmocker.ObjectMockerTest;
+import org.luncert.objectmocker.core.ObjectGenerator;
+import org.luncert.objectmocker.core.ObjectMockContext;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(JUnit4.class)
+public class RandomSourceTest {
+
+  private static final List<RandomSource> SOURCES = Arrays.asList(
+      RandomSource.threadLocal(),
+      RandomSource.splittable(),
+      RandomSource.xoshiro256StarStar());
+
+  @Test
+  public void range() {
+    for (RandomSource source : SOURCES) {
+      for (int i = 0; i < 1000; i++) {
+        int intValue = source.nextInt(-5, 7);
+        Assert.assertTrue(intValue >= -5 && intValue < 7);
+        long longValue = source.nextLong(3, 1L << 40);
+        Assert.assertTrue(longValue >= 3 && longValue < 1L << 40);
+        double doubleValue = source.nextDouble(1.5, 2.5);
+        Assert.assertTrue(doubleValue >= 1.5 && doubleValue < 2.5);
+        Assert.assertTrue(source.nextInt(13) < 13);
+      }
+      Assert.assertEquals(4, source.nextInt(4, 4));
+      Assert.assertEquals(4L, source.nextLong(4, 4));
+    }
+  }
+
+  @Test
+  public void wideRange() {
+    for (RandomSource source : SOURCES) {
+      boolean negative = false;
+      boolean positive = false;
+      for (int i = 0; i < 1000; i++) {
+        int intValue = source.nextInt(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        Assert.assertTrue(intValue < Integer.MAX_VALUE);
+        int narrowed = source.nextInt(-2, Integer.MAX_VALUE);
+        Assert.assertTrue(narrowed >= -2 && narrowed < Integer.MAX_VALUE);
+        long longValue = source.nextLong(Long.MIN_VALUE, Long.MAX_VALUE);
+        Assert.assertTrue(longValue < Long.MAX_VALUE);
+        long shifted = source.nextLong(Long.MIN_VALUE + 1, 1);
+        Assert.assertTrue(shifted > Long.MIN_VALUE && shifted < 1);
+        negative |= longValue < 0;
+        positive |= longValue > 0;
+      }
+      Assert.assertTrue(negative && positive);
+      Assert.assertEquals(Integer.MAX_VALUE - 1,
+          source.nextInt(Integer.MAX_VALUE - 1, Integer.MAX_VALUE));
+      Assert.assertEquals(Long.MIN_VALUE, source.nextLong(Long.MIN_VALUE, Long.MIN_VALUE + 1));
+    }
+  }
+
+  @Test
+  public void nextBytes() {
+    for (RandomSource source : SOURCES) {
+      byte[] bytes = new byte[29];
+      source.nextBytes(bytes);
+      int nonZero = 0;
+      for (byte b : bytes) {
+        nonZero += b != 0 ? 1 : 0;
+      }
+      Assert.assertTrue(nonZero > 0);
+    }
+    byte[] a = new byte[13];
+    byte[] b = new byte[13];
+    RandomSource.xoshiro256StarStar(7).nextBytes(a);
+    RandomSource.xoshiro256StarStar(7).nextBytes(b);
+    Assert.assertArrayEquals(a, b);
+  }
+
+  @Test
+  public void invalidRange() {
+    for (RandomSource source : SOURCES) {
+      try {
+        source.nextInt(2, 1);
+        Assert.fail("Catch no exception");
+      } catch (IllegalArgumentException e) {
+        // pass
+      }
+    }
+  }
+
+  @Test
+  public void seeded() {
+    RandomSource a = RandomSource.xoshiro256StarStar(42);
+    RandomSource b = RandomSource.xoshiro256StarStar(42);
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals(a.nextLong(), b.nextLong());
+    }
+
+    // splitting is deterministic too, and child sequence differs from its parent
+    RandomSource childA = a.split();
+    RandomSource childB = b.split();
+    for (int i = 0; i < 100; i++) {
+      long value = childA.nextLong();
+      Assert.assertEquals(value, childB.nextLong());
+      Assert.assertNotEquals(value, a.nextLong());
+    }
+  }
+
+  @Test
+  public void contextRandomSourcePerThread() throws Exception {
+    ObjectMockContext context = ObjectMocker.context()
+        .randomSource(RandomSource.xoshiro256StarStar(7))
+        .register(ObjectGenerator.builder(ObjectMockerTest.TestClass.class).build())
+        .create();
+
+    RandomSource source = context.getRandomSource();
+    Assert.assertSame(source, context.getRandomSource());
+    Assert.assertSame(source, context.createVirtualContext().getRandomSource());
+
+    AtomicReference<RandomSource> other = new AtomicReference<>();
+    Thread thread = new Thread(() -> {
+      other.set(context.getRandomSource());
+      context.generateMany(ObjectMockerTest.TestClass.class, 10);
+    });
+    thread.start();
+    thread.join();
+    Assert.assertNotNull(other.get());
+    Assert.assertNotSame(source, other.get());
+
+    Assert.assertEquals(1000, context.generateParallel(ObjectMockerTest.TestClass.class,
+        1000, 4).length);
+  }
+}